@@ -0,0 +1,111 @@
+import com.entity.wtv.dto.FieldSelection;
+import com.entity.wtv.dto.WeeklySummaryBatchDTO;
+import com.entity.wtv.dto.WeeklyTimeSummaryDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding benchmark - payload size, gzip size and serialization CPU of one
+ * week of summaries in each response encoding
+ *
+ * Run through scripts/encoding-benchmark.sh, which puts target/classes and
+ * the dependency jars on the class path. The mappers are built the way
+ * BinaryEncodingConfig builds them (Boot's Jackson builder, serialize-all
+ * filter, JSON/CBOR/Smile factory), so the bytes match what the API sends.
+ *
+ * Rows are synthetic but shaped like real ones: distinct ROIDs and names,
+ * two-decimal hours, day masks and a tour. Columnar CPU includes the pivot
+ * from rows (WeeklySummaryBatchDTO.from), as the endpoint does it per request.
+ * CPU is thread CPU time averaged over the measured iterations, after the
+ * same number of warm-up iterations.
+ */
+public class EncodingBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        List<WeeklyTimeSummaryDTO> summaries = rows(rows);
+        ObjectMapper json = mapper(new JsonFactory());
+        ObjectMapper cbor = mapper(new CBORFactory());
+        ObjectMapper smile = mapper(new SmileFactory());
+
+        System.out.printf("%d rows, %d iterations%n", rows, iterations);
+        System.out.printf("%-16s %12s %10s %8s%n", "format", "bytes", "gzip", "cpu-ms");
+        measure("JSON rows", json, () -> summaries, iterations);
+        measure("CBOR rows", cbor, () -> summaries, iterations);
+        measure("Smile rows", smile, () -> summaries, iterations);
+        measure("JSON columnar", json, () -> WeeklySummaryBatchDTO.from(summaries), iterations);
+        measure("CBOR columnar", cbor, () -> WeeklySummaryBatchDTO.from(summaries), iterations);
+        measure("Smile columnar", smile, () -> WeeklySummaryBatchDTO.from(summaries), iterations);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .filters(FieldSelection.SERIALIZE_ALL)
+                .factory(factory)
+                .build();
+    }
+
+    private static void measure(String name, ObjectMapper mapper, Supplier<Object> body, int iterations)
+            throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        byte[] bytes = null;
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(body.get());
+        }
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(body.get());
+        }
+        double cpuMs = (threads.getCurrentThreadCpuTime() - start) / 1e6 / iterations;
+        System.out.printf("%-16s %,12d %,10d %8.1f%n", name, bytes.length, gzip(bytes).length, cpuMs);
+    }
+
+    private static List<WeeklyTimeSummaryDTO> rows(int count) {
+        List<WeeklyTimeSummaryDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal worked = BigDecimal.valueOf(1000 + i % 2000, 2);
+            BigDecimal code = BigDecimal.valueOf(2000 + i % 1000, 2);
+            rows.add(WeeklyTimeSummaryDTO.builder()
+                    .assignmentNumber(22_000_000L + i)
+                    .employeeName("BENCHMARK EMPLOYEE " + i)
+                    .tourOfDutyHours(worked.add(code))
+                    .adjustedTour(BigDecimal.valueOf(i % 3 == 0 ? 800 : 0, 2))
+                    .hoursWorked(worked)
+                    .caseDirectTime(worked)
+                    .codeDirectTime(code)
+                    .overheadTime(BigDecimal.valueOf(i % 400, 2))
+                    .reportDays(5)
+                    .reportDayMask(0b0111110L)
+                    .nonCaseDayMask(0b0111110L)
+                    .caseDayMask(i % 2 == 0 ? 0b0111110L : 0b0011100L)
+                    .tourOfDutyType(i % 7 == 0 ? "*" : "-")
+                    .lastDateEod("11/0" + (1 + i % 2) + "/2024")
+                    .tour(1 + i % 5)
+                    .build());
+        }
+        return rows;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
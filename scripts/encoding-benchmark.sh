@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# =============================================================================
+# Encoding benchmark - payload, gzip and serialization CPU of a week of
+# summaries as JSON, CBOR and Smile, row-oriented and columnar
+#
+#   mvn compile
+#   scripts/encoding-benchmark.sh [rows] [iterations]
+#
+# Serializes <rows> synthetic summary rows (default 10000) in-process with
+# the application's mappers; see EncodingBenchmark.java. No server or
+# database is involved. The numbers behind the Binary Encodings table in
+# README.md come from this script.
+# =============================================================================
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+ROWS=${1:-10000}
+ITERATIONS=${2:-100}
+
+if [[ ! -d target/classes/com ]]; then
+    echo "No classes - run: mvn compile" >&2
+    exit 1
+fi
+
+CP_FILE=target/encoding-benchmark.classpath
+if [[ ! -f "$CP_FILE" || pom.xml -nt "$CP_FILE" ]]; then
+    mvn -B -q dependency:build-classpath -Dmdep.outputFile="$CP_FILE" >/dev/null
+fi
+
+java -cp "target/classes:$(cat "$CP_FILE")" scripts/EncodingBenchmark.java "$ROWS" "$ITERATIONS"
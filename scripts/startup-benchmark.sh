@@ -0,0 +1,103 @@
+#!/usr/bin/env bash
+# =============================================================================
+# Startup benchmark - time to readiness and resident memory per startup variant
+#
+#   mvn -Pcds package -DskipTests     # builds target/cds (needed for the cds variants)
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each variant is started <runs> times (default 5). A run ends when
+# /actuator/health/readiness answers 200, i.e. after the warm-up. The RSS is
+# taken at that moment. Medians are printed.
+#
+# Environment:
+#   PROFILES   database profile(s) to start with (default: local)
+#   PORT       HTTP port (default: 8080)
+#   JAVA_OPTS  extra JVM options for every variant (e.g. -Xmx1g)
+#   TIMEOUT    seconds to wait for readiness (default: 180)
+# =============================================================================
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PROFILES=${PROFILES:-local}
+PORT=${PORT:-8080}
+JAVA_OPTS=${JAVA_OPTS:-}
+TIMEOUT=${TIMEOUT:-180}
+READY_URL="http://localhost:${PORT}/wtv/actuator/health/readiness"
+
+BOOT_JAR=$(ls target/wtv-service-*.jar 2>/dev/null | grep -v original | head -1 || true)
+CDS_JAR=target/cds/wtv-service.jar
+CDS_ARCHIVE=target/cds/wtv-service.jsa
+
+if [[ -z "$BOOT_JAR" ]]; then
+    echo "No jar in target/ - run: mvn -Pcds package -DskipTests" >&2
+    exit 1
+fi
+if curl -s -o /dev/null "$READY_URL"; then
+    echo "Something is already listening on port $PORT" >&2
+    exit 1
+fi
+
+# name|java arguments
+VARIANTS=(
+    "default|-jar $BOOT_JAR --spring.profiles.active=$PROFILES"
+    "fast-start|-jar $BOOT_JAR --spring.profiles.active=$PROFILES,fast-start"
+)
+if [[ -f "$CDS_ARCHIVE" ]]; then
+    VARIANTS+=(
+        "cds|-XX:SharedArchiveFile=$CDS_ARCHIVE -jar $CDS_JAR --spring.profiles.active=$PROFILES"
+        "fast-start+cds|-XX:SharedArchiveFile=$CDS_ARCHIVE -jar $CDS_JAR --spring.profiles.active=$PROFILES,fast-start"
+    )
+else
+    echo "No $CDS_ARCHIVE - skipping the cds variants (build with -Pcds)" >&2
+fi
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# Prints "<ready ms> <rss KiB>" for one start
+run_once() {
+    local log pid started now elapsed rss
+    log=$(mktemp)
+    # shellcheck disable=SC2086
+    java $JAVA_OPTS $1 --server.port="$PORT" >"$log" 2>&1 &
+    pid=$!
+    started=$(date +%s%N)
+    while true; do
+        if [[ $(curl -s -o /dev/null -w '%{http_code}' "$READY_URL") == 200 ]]; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Process exited before it was ready - log: $log" >&2
+            return 1
+        fi
+        now=$(date +%s%N)
+        if (( (now - started) / 1000000000 > TIMEOUT )); then
+            kill "$pid"
+            echo "Not ready after ${TIMEOUT}s - log: $log" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - started) / 1000000 ))
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    echo "$elapsed $rss"
+}
+
+printf '%-16s %6s %14s %14s\n' variant runs ready-ms rss-MiB
+for variant in "${VARIANTS[@]}"; do
+    name=${variant%%|*}
+    args=${variant#*|}
+    results=()
+    for ((i = 1; i <= RUNS; i++)); do
+        results+=("$(run_once "$args")")
+    done
+    ready=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-16s %6d %14d %14d\n' "$name" "$RUNS" "$ready" $(( rss / 1024 ))
+done
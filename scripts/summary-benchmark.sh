@@ -0,0 +1,149 @@
+#!/usr/bin/env bash
+# =============================================================================
+# Summary benchmark - latency, allocation and body size of one API request
+# against a synthetic H2 dataset
+#
+#   mvn package -DskipTests
+#   scripts/summary-benchmark.sh [employees] [runs]
+#
+# Seeds <employees> extra WTV-eligible employees (default 10000), each with
+# a full 39-column ENTEMP row and five days of case and non-case time in the
+# week of 2024-10-27, on top of the local profile's data. The request is
+# sent once to warm up, then <runs> times (default 5). Prints the median
+# latency, the heap allocated per request and the response size.
+#
+# To compare two builds, run it once per jar (JAR=...). Caches and request
+# shedding are switched off so every run does the full computation.
+#
+# Environment:
+#   JAR        jar to start (default: target/wtv-service-*.jar)
+#   REQUEST    path and query under /wtv
+#              (default: /api/wtv/summaries?startDate=2024-10-27&endDate=2024-11-02)
+#   ACCEPT     Accept header (default: application/json); several values,
+#              separated by spaces, are measured one after the other
+#   PORT       HTTP port (default: 8080)
+#   JAVA_OPTS  extra JVM options (e.g. -Xmx1g)
+#   TIMEOUT    seconds to wait for startup (default: 300)
+# =============================================================================
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+EMPLOYEES=${1:-10000}
+RUNS=${2:-5}
+JAR=${JAR:-$(ls target/wtv-service-*.jar 2>/dev/null | grep -v original | head -1 || true)}
+REQUEST=${REQUEST:-/api/wtv/summaries?startDate=2024-10-27&endDate=2024-11-02}
+ACCEPT=${ACCEPT:-application/json}
+PORT=${PORT:-8080}
+JAVA_OPTS=${JAVA_OPTS:-}
+TIMEOUT=${TIMEOUT:-300}
+BASE_URL="http://localhost:${PORT}/wtv"
+
+if [[ -z "$JAR" || ! -f "$JAR" ]]; then
+    echo "No jar - run: mvn package -DskipTests (or set JAR)" >&2
+    exit 1
+fi
+if curl -s -o /dev/null "$BASE_URL/actuator/health"; then
+    echo "Something is already listening on port $PORT" >&2
+    exit 1
+fi
+
+# -----------------------------------------------------------------------------
+# Seed
+# -----------------------------------------------------------------------------
+SEED=$(mktemp --suffix=.sql)
+cat >"$SEED" <<SQL
+INSERT INTO ENTEMP (ROID, NAME, GRADE, TYPE, ICSACC, BADGE, TITLE, AREACD, PHONE, EXT, SEID, EMAIL,
+    POSTYPE, AREA, TOUR, PODIND, TPSIND, CSUIND, AIDEIND, FLEXIND, EMPDT, ADJDT, ADJREASON, ADJPERCENT,
+    PREVID, EACTIVE, UNIX, ELEVEL, EXTRDT, PRIMARY_ROID, PODCD, ORG, LASTLOGIN, GS9CNT, GS11CNT, GS12CNT,
+    GS13CNT, LOGOFF, IP_ADDR)
+SELECT 22000000 + X, 'BENCHMARK EMPLOYEE ' || X, 12, 'R', 'Y', 'B' || X, 'REVENUE OFFICER', 555,
+    1234567, 1234, 'S' || MOD(X, 10000), 'employee' || X || '@example.gov', 'A', '1', MOD(X, 5) + 1,
+    'N', 'N', 'N', 'N', 'N', DATE '2015-01-01', DATE '2020-01-01', 'NONE', 0, 0, 'A', 'bench', 1,
+    DATE '2030-01-01', 'Y', 'P01', '35', DATE '2024-10-01', 1, 2, 3, 4, DATE '2024-10-01', '10.0.0.1'
+FROM SYSTEM_RANGE(1, ${EMPLOYEES});
+
+INSERT INTO TIMENON (ROID, RPTDT, TIMECODE, HOURS)
+SELECT 22000000 + E.X, DATEADD('DAY', D.X, DATE '2024-10-27'), '100', 6.00
+FROM SYSTEM_RANGE(1, ${EMPLOYEES}) E, SYSTEM_RANGE(1, 5) D;
+
+INSERT INTO TIMETIN (ROID, TIMESID, RPTDT, HOURS)
+SELECT 22000000 + E.X, 1001, DATEADD('DAY', D.X, DATE '2024-10-27'), 2.00
+FROM SYSTEM_RANGE(1, ${EMPLOYEES}) E, SYSTEM_RANGE(1, 5) D;
+SQL
+
+# -----------------------------------------------------------------------------
+# Start
+# -----------------------------------------------------------------------------
+LOG=$(mktemp --suffix=.log)
+# Unknown properties are ignored, so the same switches work for older builds
+# shellcheck disable=SC2086
+java $JAVA_OPTS -jar "$JAR" --spring.profiles.active=local --server.port="$PORT" \
+    --spring.sql.init.data-locations="classpath:data.sql,file:$SEED" \
+    --spring.jpa.show-sql=false \
+    --logging.level.com.entity.wtv=INFO \
+    --logging.level.org.hibernate.SQL=INFO \
+    --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO \
+    --wtv.degraded.enabled=false \
+    --wtv.limiter.enabled=false \
+    --wtv.bulkhead.enabled=false \
+    --wtv.response-cache.enabled=false \
+    --wtv.change-capture.enabled=false \
+    --wtv.cache-invalidation.enabled=false \
+    --wtv.jobs.enabled=false \
+    --wtv.warmup.enabled=false \
+    --wtv.prefetch.enabled=false \
+    --wtv.slow-query.enabled=false \
+    >"$LOG" 2>&1 &
+PID=$!
+trap 'kill "$PID" 2>/dev/null || true; wait "$PID" 2>/dev/null || true; rm -f "$SEED"' EXIT
+
+started=$(date +%s)
+until [[ $(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/actuator/health") == 200 ]]; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+        echo "Process exited during startup - log: $LOG" >&2
+        exit 1
+    fi
+    if (( $(date +%s) - started > TIMEOUT )); then
+        echo "Not up after ${TIMEOUT}s - log: $LOG" >&2
+        exit 1
+    fi
+    sleep 1
+done
+
+# -----------------------------------------------------------------------------
+# Measure
+# -----------------------------------------------------------------------------
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+# Bytes allocated so far; a GC first so the counter is current
+allocated() {
+    jcmd "$PID" GC.run >/dev/null
+    curl -s "$BASE_URL/actuator/metrics/jvm.gc.memory.allocated" \
+        | grep -o '"value":[0-9.E+]*' | head -1 | cut -d: -f2 | awk '{ printf "%.0f", $1 }'
+}
+
+echo "jar: $JAR"
+echo "request: $REQUEST ($EMPLOYEES seeded employees, $RUNS runs)"
+printf '%-34s %10s %12s %12s\n' accept median-ms alloc-MiB bytes
+for accept in $ACCEPT; do
+    status=$(curl -s -o /dev/null -w '%{http_code}' -H "Accept: $accept" "$BASE_URL$REQUEST")
+    if [[ $status != 200 ]]; then
+        echo "$accept: HTTP $status - log: $LOG" >&2
+        exit 1
+    fi
+    times=()
+    before=$(allocated)
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(curl -s -o /dev/null -w '%{time_total} %{size_download}' -H "Accept: $accept" "$BASE_URL$REQUEST")
+        times+=("${result% *}")
+        bytes=${result#* }
+    done
+    after=$(allocated)
+    ms=$(printf '%s\n' "${times[@]}" | median | awk '{ printf "%.0f", $1 * 1000 }')
+    alloc=$(awk -v b="$before" -v a="$after" -v n="$RUNS" 'BEGIN { printf "%.1f", (a - b) / n / 1048576 }')
+    printf '%-34s %10s %12s %12s\n' "$accept" "$ms" "$alloc" "$bytes"
+done
+rm -f "$LOG"
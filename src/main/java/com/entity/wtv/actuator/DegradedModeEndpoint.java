@@ -0,0 +1,27 @@
+package com.entity.wtv.actuator;
+
+import com.entity.wtv.service.DegradedModeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for degraded mode
+ *
+ * GET /actuator/degraded - circuit state, thresholds, fresh/stale/rejected counts
+ */
+@Component
+@Endpoint(id = "degraded")
+@RequiredArgsConstructor
+public class DegradedModeEndpoint {
+
+    private final DegradedModeService degradedModeService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return degradedModeService.getStatus();
+    }
+}
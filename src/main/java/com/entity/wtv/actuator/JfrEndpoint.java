@@ -0,0 +1,92 @@
+package com.entity.wtv.actuator;
+
+import com.entity.wtv.jfr.JfrRecordings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for on-demand flight recordings
+ *
+ * GET    /actuator/jfr      - recordings in this JVM with state and size
+ * POST   /actuator/jfr      - start one: {"duration": "2m", "settings": "profile"} (both optional)
+ * GET    /actuator/jfr/{id} - download a .jfr dump (a snapshot if still running)
+ * DELETE /actuator/jfr/{id} - stop and discard a recording started here
+ */
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+
+    private final JfrRecordings jfrRecordings;
+
+    @ReadOperation
+    public List<Map<String, Object>> recordings() {
+        return jfrRecordings.list();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable Duration duration, @Nullable String settings) {
+        return jfrRecordings.start(duration, settings);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector long id) {
+        return jfrRecordings.dump(id)
+                .map(file -> new WebEndpointResponse<Resource>(new TemporaryFileResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> close(@Selector long id) {
+        return new WebEndpointResponse<>(jfrRecordings.close(id)
+                ? WebEndpointResponse.STATUS_NO_CONTENT : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    /**
+     * Dump file deleted once the response has been written
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            // Forces the converter through getInputStream() so close() removes the file
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.entity.wtv.actuator;
+
+import com.entity.wtv.jobs.ClusterJobScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for cluster jobs
+ *
+ * GET /actuator/jobs - lease owner, next run, last status and timings per job partition
+ */
+@Component
+@Endpoint(id = "jobs")
+@RequiredArgsConstructor
+public class JobsEndpoint {
+
+    private final ClusterJobScheduler clusterJobScheduler;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return clusterJobScheduler.getStatus();
+    }
+}
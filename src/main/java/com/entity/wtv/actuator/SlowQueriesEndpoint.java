@@ -0,0 +1,45 @@
+package com.entity.wtv.actuator;
+
+import com.entity.wtv.jdbc.SlowQueryRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint for slow SQL statements
+ *
+ * GET    /actuator/slowqueries               - fingerprints by total time, recent slow statements
+ * GET    /actuator/slowqueries/{fingerprint} - one fingerprint with its recent statements and binds
+ * DELETE /actuator/slowqueries               - reset
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return slowQueryRecorder.getStatus();
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Map<String, Object>> fingerprint(@Selector String fingerprint) {
+        Map<String, Object> description = slowQueryRecorder.getFingerprint(fingerprint);
+        return description != null
+                ? new WebEndpointResponse<>(description)
+                : new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryRecorder.clear();
+    }
+}
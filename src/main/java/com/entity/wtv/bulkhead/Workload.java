@@ -0,0 +1,18 @@
+package com.entity.wtv.bulkhead;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares the workload class of a service method (or every method of a service)
+ *
+ * Calls are admitted through the bulkhead of that class before the
+ * transaction - and therefore the connection - is acquired.
+ * A method-level annotation overrides the class-level one.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadClass value();
+}
@@ -0,0 +1,187 @@
+package com.entity.wtv.bulkhead;
+
+import com.entity.wtv.config.BulkheadProperties;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admits @Workload service calls through a per-class semaphore bulkhead
+ *
+ * Ordered ahead of the transaction interceptor so a call waiting for a
+ * permit never holds a pooled connection. Nested calls on a thread that
+ * already holds a permit pass straight through.
+ *
+ * Metrics (tag workload=interactive|export|calendar_write|prefetch):
+ * - wtv.bulkhead.active / wtv.bulkhead.waiting - current permits in use and queued calls
+ * - wtv.bulkhead.wait - time spent waiting for a permit
+ * - wtv.bulkhead.rejected - calls rejected (queue full or max-wait exceeded)
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+@Slf4j
+public class WorkloadBulkheadAspect {
+
+    private static final ThreadLocal<WorkloadClass> HELD = new ThreadLocal<>();
+
+    private final BulkheadProperties properties;
+    private final Map<WorkloadClass, Bulkhead> bulkheads = new EnumMap<>(WorkloadClass.class);
+
+    public WorkloadBulkheadAspect(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (WorkloadClass workloadClass : WorkloadClass.values()) {
+            bulkheads.put(workloadClass, new Bulkhead(workloadClass, properties.limitsFor(workloadClass), meterRegistry));
+        }
+    }
+
+    @Around("@within(com.entity.wtv.bulkhead.Workload) || @annotation(com.entity.wtv.bulkhead.Workload)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isEnabled() || HELD.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        WorkloadClass workloadClass = resolve(joinPoint);
+        Bulkhead bulkhead = bulkheads.get(workloadClass);
+        bulkhead.acquire(joinPoint.getSignature().toShortString());
+        HELD.set(workloadClass);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HELD.remove();
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Run work under a workload class's bulkhead from outside a @Workload method -
+     * @Workload calls made inside it pass straight through on that permit
+     *
+     * @throws ServiceUnavailableException when no permit is available in time
+     */
+    public <T> T call(WorkloadClass workloadClass, String operation, Supplier<T> work) throws InterruptedException {
+        if (!properties.isEnabled() || HELD.get() != null) {
+            return work.get();
+        }
+
+        Bulkhead bulkhead = bulkheads.get(workloadClass);
+        bulkhead.acquire(operation);
+        HELD.set(workloadClass);
+        try {
+            return work.get();
+        } finally {
+            HELD.remove();
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * True if a workload class has at least this many free permits and nobody waiting -
+     * used by background work that must never compete with foreground calls
+     */
+    public boolean hasHeadroom(WorkloadClass workloadClass, int minFreePermits) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        Bulkhead bulkhead = bulkheads.get(workloadClass);
+        return bulkhead.waiting.get() == 0 && bulkhead.permits.availablePermits() >= minFreePermits;
+    }
+
+    private static WorkloadClass resolve(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+        }
+        return workload != null ? workload.value() : WorkloadClass.INTERACTIVE;
+    }
+
+    /**
+     * Semaphore with a bounded wait queue for one workload class
+     */
+    private static final class Bulkhead {
+
+        private final WorkloadClass workloadClass;
+        private final BulkheadProperties.Limits limits;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Timer waitTimer;
+        private final Counter rejectedCounter;
+
+        Bulkhead(WorkloadClass workloadClass, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+            this.workloadClass = workloadClass;
+            this.limits = limits;
+            this.permits = new Semaphore(limits.getMaxConcurrent(), true);
+
+            String tag = workloadClass.name().toLowerCase();
+            Gauge.builder("wtv.bulkhead.active", permits, p -> limits.getMaxConcurrent() - p.availablePermits())
+                    .description("Calls currently running in the bulkhead")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            Gauge.builder("wtv.bulkhead.waiting", waiting, AtomicInteger::get)
+                    .description("Calls waiting for a bulkhead permit")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("wtv.bulkhead.wait")
+                    .description("Time spent waiting for a bulkhead permit")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+            this.rejectedCounter = Counter.builder("wtv.bulkhead.rejected")
+                    .description("Calls rejected by the bulkhead")
+                    .tag("workload", tag)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String operation) throws InterruptedException {
+            if (permits.tryAcquire()) {
+                waitTimer.record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+            if (waiting.incrementAndGet() > limits.getMaxQueue()) {
+                waiting.decrementAndGet();
+                reject(operation, "queue full");
+            }
+            long startNanos = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(limits.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                reject(operation, "no permit within " + limits.getMaxWait().toSeconds() + "s");
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        private void reject(String operation, String reason) {
+            rejectedCounter.increment();
+            log.warn("Bulkhead {} rejected {}: {}", workloadClass, operation, reason);
+            throw new ServiceUnavailableException(
+                    "Too many " + workloadClass.name().toLowerCase() + " requests in progress",
+                    Math.max(1, limits.getMaxWait().toSeconds() / 2));
+        }
+    }
+}
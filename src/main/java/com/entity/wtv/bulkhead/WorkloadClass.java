@@ -0,0 +1,32 @@
+package com.entity.wtv.bulkhead;
+
+/**
+ * Workload classes that get their own concurrency bulkhead
+ *
+ * Limits are set per class under wtv.bulkhead.* so that long exports and
+ * calendar writes can never take every pooled connection away from the
+ * interactive screens.
+ */
+public enum WorkloadClass {
+
+    /**
+     * Quick screen lookups: summaries, timesheets, reporting months, calendar reads
+     */
+    INTERACTIVE,
+
+    /**
+     * Long-running CSV exports
+     */
+    EXPORT,
+
+    /**
+     * CTRS calendar fiscal year / month writes
+     */
+    CALENDAR_WRITE,
+
+    /**
+     * Speculative background work (adjacent-week timesheet prefetch) - its own
+     * permit, so it never takes one an interactive call could use
+     */
+    PREFETCH
+}
@@ -0,0 +1,389 @@
+package com.entity.wtv.change;
+
+import com.entity.wtv.change.DataChangeEvent.CodeChanged;
+import com.entity.wtv.change.DataChangeEvent.EmployeeChanged;
+import com.entity.wtv.change.DataChangeEvent.TimeEntriesChanged;
+import com.entity.wtv.coherence.CacheInvalidationHandler;
+import com.entity.wtv.coherence.CacheInvalidationLog;
+import com.entity.wtv.config.ChangeCaptureProperties;
+import com.entity.wtv.repository.EntcodeRepository;
+import com.entity.wtv.repository.EntempRepository;
+import com.entity.wtv.repository.TimenonRepository;
+import com.entity.wtv.repository.TimetinRepository;
+import com.entity.wtv.repository.projection.CodeFingerprintView;
+import com.entity.wtv.repository.projection.EmployeeFingerprintView;
+import com.entity.wtv.repository.projection.Fingerprints;
+import com.entity.wtv.repository.projection.RoidDayEntryView;
+import com.entity.wtv.service.ChangeToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Single change-capture feed for the WTV source tables
+ *
+ * One capture thread polls:
+ * - TIMENON / TIMETIN by ENTRYDT (index range scan from the watermark) every
+ *   poll-interval -> TimeEntriesChanged per ROID with the report dates touched
+ * - ENTEMP / ENTCODE by per-row checksum of the columns WTV reads every
+ *   reference-poll-interval -> EmployeeChanged / CodeChanged
+ *
+ * Detected events go on a bounded queue. One dispatch thread merges whatever
+ * is queued (up to max-batch-events, one event per ROID or code) and hands the
+ * batch to every DataChangeListener bean in order. If listeners fall so far
+ * behind that the queue fills, the backlog is replaced by a single incomplete
+ * batch and listeners drop everything they hold.
+ *
+ * A "time" row in the cache invalidation log (written by a time-entry writer
+ * in its own transaction) triggers an immediate time poll instead of waiting
+ * for the next interval.
+ *
+ * Each delivered batch bumps the data version, which caches can use as a key
+ * instead of a timer. Deleted TIMENON / TIMETIN rows leave no ENTRYDT and are
+ * not detected.
+ *
+ * Metrics: wtv.change.events{type=time|employee|code}, wtv.change.overflow,
+ * wtv.change.queue, wtv.change.version
+ */
+@Component
+@Slf4j
+public class ChangeCapturePoller implements CacheInvalidationHandler {
+
+    private final ChangeCaptureProperties properties;
+    private final TimenonRepository timenonRepository;
+    private final TimetinRepository timetinRepository;
+    private final EntempRepository entempRepository;
+    private final EntcodeRepository entcodeRepository;
+    private final ObjectProvider<DataChangeListener> listeners;
+
+    private final ScheduledExecutorService capture;
+    private final ExecutorService dispatcher;
+    private final BlockingQueue<Pending> queue;
+    private final AtomicLong dataVersion = new AtomicLong();
+    private volatile LocalDateTime entryWatermark;
+
+    private final Counter timeEventsCounter;
+    private final Counter employeeEventsCounter;
+    private final Counter codeEventsCounter;
+    private final Counter overflowCounter;
+
+    // Capture thread only
+    private final Map<RoidDay, LocalDateTime> recentEntries = new HashMap<>();
+    private Map<Long, String> employeeChecksums;
+    private Map<String, String> codeChecksums;
+    private final Set<String> failingSources = new HashSet<>();
+
+    public ChangeCapturePoller(ChangeCaptureProperties properties,
+                               TimenonRepository timenonRepository,
+                               TimetinRepository timetinRepository,
+                               EntempRepository entempRepository,
+                               EntcodeRepository entcodeRepository,
+                               ObjectProvider<DataChangeListener> listeners,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.timenonRepository = timenonRepository;
+        this.timetinRepository = timetinRepository;
+        this.entempRepository = entempRepository;
+        this.entcodeRepository = entcodeRepository;
+        this.listeners = listeners;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.capture = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "wtv-cdc-poll"));
+        this.dispatcher = Executors.newSingleThreadExecutor(r -> daemon(r, "wtv-cdc-dispatch"));
+
+        this.timeEventsCounter = eventCounter(meterRegistry, "time");
+        this.employeeEventsCounter = eventCounter(meterRegistry, "employee");
+        this.codeEventsCounter = eventCounter(meterRegistry, "code");
+        this.overflowCounter = Counter.builder("wtv.change.overflow")
+                .description("Times the change queue filled and listeners were told to drop everything")
+                .register(meterRegistry);
+        Gauge.builder("wtv.change.queue", queue, BlockingQueue::size)
+                .description("Change batches waiting for listeners")
+                .register(meterRegistry);
+        Gauge.builder("wtv.change.version", dataVersion, AtomicLong::get)
+                .description("Change batches delivered since startup")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            long poll = properties.getPollInterval().toMillis();
+            long reference = properties.getReferencePollInterval().toMillis();
+            capture.scheduleWithFixedDelay(this::pollTimeEntries, 0, poll, TimeUnit.MILLISECONDS);
+            capture.scheduleWithFixedDelay(this::pollReferenceTables, 0, reference, TimeUnit.MILLISECONDS);
+            dispatcher.execute(this::dispatchLoop);
+        }
+    }
+
+    private static Thread daemon(Runnable r, String name) {
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("wtv.change.events")
+                .description("Change events detected by source")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        capture.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    /**
+     * True when the feed is polling; consumers that depend on it should fall back otherwise
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Increases with every delivered batch - a cache key that changes when the data may have
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Latest ENTRYDT captured, or null before the first poll
+     */
+    public LocalDateTime getEntryWatermark() {
+        return entryWatermark;
+    }
+
+    @Override
+    public String region() {
+        return CacheInvalidationLog.TIME_ENTRIES;
+    }
+
+    /**
+     * Time entries were written elsewhere - poll now rather than at the next interval
+     */
+    @Override
+    public void invalidate(String cacheKey) {
+        if (properties.isEnabled() && !capture.isShutdown()) {
+            capture.execute(this::pollTimeEntries);
+        }
+    }
+
+    // =========================================================================
+    // Capture
+    // =========================================================================
+
+    private void pollTimeEntries() {
+        try {
+            boolean baseline = entryWatermark == null;
+            if (baseline) {
+                entryWatermark = ChangeToken.latest(
+                        timenonRepository.findMaxEntryDate(), timetinRepository.findMaxEntryDate());
+            }
+
+            // Re-read inside the commit lag to catch late commits; entries already seen are skipped
+            LocalDateTime from = entryWatermark.minus(ChangeToken.COMMIT_LAG);
+            List<RoidDayEntryView> entries = Stream.concat(
+                    timenonRepository.findEntriesSince(from).stream(),
+                    timetinRepository.findEntriesSince(from).stream()).toList();
+            if (baseline) {
+                // Existing entries are the starting point, not changes
+                entries.forEach(entry -> recentEntries.merge(
+                        new RoidDay(entry.getRoid(), entry.getRptdt()), entry.getLastEntry(), ChangeToken::latest));
+                sourceRecovered("time entries");
+                return;
+            }
+
+            LocalDateTime next = entryWatermark;
+            Map<Long, TimeEntriesChanged> changed = new TreeMap<>();
+            for (RoidDayEntryView entry : entries) {
+                RoidDay key = new RoidDay(entry.getRoid(), entry.getRptdt());
+                LocalDateTime seen = recentEntries.get(key);
+                if (seen != null && !entry.getLastEntry().isAfter(seen)) {
+                    continue;
+                }
+                recentEntries.put(key, entry.getLastEntry());
+                next = ChangeToken.latest(next, entry.getLastEntry());
+                changed.merge(entry.getRoid(),
+                        new TimeEntriesChanged(entry.getRoid(), entry.getRptdt(), entry.getRptdt()),
+                        ChangeCapturePoller::span);
+            }
+            LocalDateTime horizon = next.minus(ChangeToken.COMMIT_LAG);
+            recentEntries.values().removeIf(entryTime -> entryTime.isBefore(horizon));
+            entryWatermark = next;
+
+            timeEventsCounter.increment(changed.size());
+            publish(new ArrayList<>(changed.values()));
+            sourceRecovered("time entries");
+        } catch (RuntimeException e) {
+            sourceFailed("time entries", e);
+        }
+    }
+
+    private void pollReferenceTables() {
+        List<DataChangeEvent> events = new ArrayList<>();
+
+        try {
+            Map<Long, String> employees = entempRepository.findFingerprintsForWtv().stream()
+                    .collect(Collectors.toMap(EmployeeFingerprintView::getRoid, EmployeeFingerprintView::checksum,
+                            (a, b) -> a));
+            if (employeeChecksums != null) {
+                diff(employeeChecksums, employees).forEach(roid -> events.add(new EmployeeChanged(roid)));
+            }
+            employeeChecksums = employees;
+            sourceRecovered("ENTEMP");
+        } catch (RuntimeException e) {
+            sourceFailed("ENTEMP", e);
+        }
+
+        try {
+            // Rows arrive in (CODE, TYPE) order, so each code's row digests are folded in a fixed order
+            Map<String, String> codes = entcodeRepository.findFingerprints().stream()
+                    .collect(Collectors.groupingBy(CodeFingerprintView::getCode, TreeMap::new,
+                            Collectors.collectingAndThen(
+                                    Collectors.mapping(CodeFingerprintView::checksum, Collectors.joining()),
+                                    Fingerprints::digest)));
+            if (codeChecksums != null) {
+                diff(codeChecksums, codes).forEach(code -> events.add(new CodeChanged(code)));
+            }
+            codeChecksums = codes;
+            sourceRecovered("ENTCODE");
+        } catch (RuntimeException e) {
+            sourceFailed("ENTCODE", e);
+        }
+
+        employeeEventsCounter.increment(events.stream().filter(EmployeeChanged.class::isInstance).count());
+        codeEventsCounter.increment(events.stream().filter(CodeChanged.class::isInstance).count());
+        publish(events);
+    }
+
+    /**
+     * Keys added, removed or with a different checksum
+     */
+    private static <K> List<K> diff(Map<K, String> before, Map<K, String> after) {
+        List<K> changed = new ArrayList<>();
+        after.forEach((key, checksum) -> {
+            if (!checksum.equals(before.get(key))) {
+                changed.add(key);
+            }
+        });
+        before.keySet().stream().filter(key -> !after.containsKey(key)).forEach(changed::add);
+        return changed;
+    }
+
+    private static TimeEntriesChanged span(TimeEntriesChanged a, TimeEntriesChanged b) {
+        LocalDate from = a.fromDate().isBefore(b.fromDate()) ? a.fromDate() : b.fromDate();
+        LocalDate to = a.toDate().isAfter(b.toDate()) ? a.toDate() : b.toDate();
+        return new TimeEntriesChanged(a.roid(), from, to);
+    }
+
+    private void sourceFailed(String source, RuntimeException e) {
+        // One warning per outage rather than one per poll
+        if (failingSources.add(source)) {
+            log.warn("Change capture for {} failed: {}", source, e.getMessage());
+        } else {
+            log.debug("Change capture for {} still failing: {}", source, e.getMessage());
+        }
+    }
+
+    private void sourceRecovered(String source) {
+        if (failingSources.remove(source)) {
+            log.info("Change capture for {} recovered", source);
+        }
+    }
+
+    // =========================================================================
+    // Dispatch
+    // =========================================================================
+
+    private void publish(List<DataChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!queue.offer(new Pending(List.copyOf(events), true))) {
+            // Listeners are too far behind - replace the backlog with "everything changed"
+            queue.clear();
+            queue.offer(new Pending(List.of(), false));
+            overflowCounter.increment();
+            log.warn("Change queue full ({} batches) - listeners told to drop all cached data",
+                    properties.getQueueCapacity());
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Pending first = queue.take();
+                List<DataChangeEvent> events = new ArrayList<>(first.events());
+                boolean complete = first.complete();
+                Pending more;
+                while (events.size() < properties.getMaxBatchEvents() && (more = queue.poll()) != null) {
+                    events.addAll(more.events());
+                    complete &= more.complete();
+                }
+
+                DataChangeBatch batch = new DataChangeBatch(dataVersion.incrementAndGet(), entryWatermark,
+                        coalesce(events), complete);
+                listeners.orderedStream().forEach(listener -> deliver(listener, batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void deliver(DataChangeListener listener, DataChangeBatch batch) {
+        try {
+            listener.onDataChange(batch);
+        } catch (RuntimeException e) {
+            log.warn("Change listener {} failed on batch {}: {}",
+                    listener.getClass().getSimpleName(), batch.version(), e.getMessage());
+        }
+    }
+
+    /**
+     * One event per ROID (time entries spans merged) or code, first-seen order
+     */
+    private static List<DataChangeEvent> coalesce(List<DataChangeEvent> events) {
+        Map<Object, DataChangeEvent> merged = new LinkedHashMap<>();
+        for (DataChangeEvent event : events) {
+            if (event instanceof TimeEntriesChanged time) {
+                merged.merge(new RoidKey(time.roid()), time, (a, b) -> span((TimeEntriesChanged) a, time));
+            } else {
+                merged.putIfAbsent(event, event);
+            }
+        }
+        return List.copyOf(merged.values());
+    }
+
+    private record Pending(List<DataChangeEvent> events, boolean complete) {
+    }
+
+    private record RoidDay(Long roid, LocalDate rptdt) {
+    }
+
+    private record RoidKey(Long roid) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.entity.wtv.change;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Change events delivered together to every DataChangeListener
+ *
+ * @param version        Data version after this batch (see ChangeCapturePoller#getDataVersion())
+ * @param entryWatermark Latest ENTRYDT covered - the change token for clients
+ * @param events         Events in detection order, at most one per ROID or code
+ * @param complete       False when events were lost (queue overflow); listeners
+ *                       must then treat every cached value as changed
+ */
+public record DataChangeBatch(long version, LocalDateTime entryWatermark,
+                              List<DataChangeEvent> events, boolean complete) {
+}
@@ -0,0 +1,31 @@
+package com.entity.wtv.change;
+
+import java.time.LocalDate;
+
+/**
+ * A change detected in the WTV source tables by ChangeCapturePoller
+ */
+public sealed interface DataChangeEvent {
+
+    /**
+     * TIMENON / TIMETIN entries keyed for an employee, spanning these report dates
+     */
+    record TimeEntriesChanged(Long roid, LocalDate fromDate, LocalDate toDate) implements DataChangeEvent {
+
+        public boolean overlaps(LocalDate startDate, LocalDate endDate) {
+            return !toDate.isBefore(startDate) && !fromDate.isAfter(endDate);
+        }
+    }
+
+    /**
+     * ENTEMP row changed (name, tour or eligibility columns), added or removed
+     */
+    record EmployeeChanged(Long roid) implements DataChangeEvent {
+    }
+
+    /**
+     * ENTCODE row changed (classification, description or active flag), added or removed
+     */
+    record CodeChanged(String code) implements DataChangeEvent {
+    }
+}
@@ -0,0 +1,13 @@
+package com.entity.wtv.change;
+
+/**
+ * In-process consumer of the change-capture feed
+ *
+ * Every bean implementing this receives each batch on the single dispatch
+ * thread, in order. Implementations must return quickly - hand heavy work to
+ * their own executor.
+ */
+public interface DataChangeListener {
+
+    void onDataChange(DataChangeBatch batch);
+}
@@ -0,0 +1,20 @@
+package com.entity.wtv.coherence;
+
+/**
+ * Node-local cache that must drop entries invalidated on another node
+ *
+ * Every bean implementing this receives the invalidation-log rows for its
+ * region on the single tail thread. Implementations must return quickly.
+ */
+public interface CacheInvalidationHandler {
+
+    /**
+     * Region name written to WTV_CACHE_INVALIDATION.REGION
+     */
+    String region();
+
+    /**
+     * @param cacheKey Entry to drop, or null for the whole region
+     */
+    void invalidate(String cacheKey);
+}
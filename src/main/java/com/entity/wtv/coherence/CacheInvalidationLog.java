@@ -0,0 +1,174 @@
+package com.entity.wtv.coherence;
+
+import com.entity.wtv.config.CacheInvalidationProperties;
+import com.entity.wtv.entity.CacheInvalidation;
+import com.entity.wtv.repository.CacheInvalidationRepository;
+import com.entity.wtv.service.ChangeToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps node-local caches coherent across instances through the database
+ *
+ * record() inserts a WTV_CACHE_INVALIDATION row in the caller's transaction,
+ * so the invalidation commits (or rolls back) with the change itself. Every
+ * node tails the log once per poll-interval and hands rows written by other
+ * nodes to the CacheInvalidationHandler beans for their region; a committed
+ * change therefore reaches every node within about one poll interval.
+ *
+ * CREATED is the database time of the insert, so the tail re-reads rows up to
+ * commit-lag older than the newest seen and skips sequence numbers it has
+ * already applied. Old rows are deleted by InvalidationLogPurgeJob.
+ *
+ * Metrics: wtv.cache.invalidations{direction=sent|received}
+ */
+@Component
+@Slf4j
+public class CacheInvalidationLog {
+
+    /**
+     * ENTMONTH calendar model (and everything keyed on its version)
+     */
+    public static final String CALENDAR = "calendar";
+
+    /**
+     * TIMENON / TIMETIN entries - for writers outside this service; key is the ROID
+     */
+    public static final String TIME_ENTRIES = "time";
+
+    private final CacheInvalidationProperties properties;
+    private final CacheInvalidationRepository repository;
+    private final ObjectProvider<CacheInvalidationHandler> handlers;
+    private final String nodeId;
+    private final ScheduledExecutorService tailer;
+    private final Counter sentCounter;
+    private final Counter receivedCounter;
+
+    // Tail thread only
+    private LocalDateTime watermark;
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    private boolean failing;
+
+    public CacheInvalidationLog(CacheInvalidationProperties properties,
+                                CacheInvalidationRepository repository,
+                                ObjectProvider<CacheInvalidationHandler> handlers,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.handlers = handlers;
+        this.nodeId = properties.getNodeId() == null || properties.getNodeId().isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName()
+                : properties.getNodeId();
+
+        this.tailer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wtv-invalidation-tail");
+            t.setDaemon(true);
+            return t;
+        });
+        this.sentCounter = Counter.builder("wtv.cache.invalidations")
+                .description("Cache invalidation log rows by direction")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.receivedCounter = Counter.builder("wtv.cache.invalidations")
+                .description("Cache invalidation log rows by direction")
+                .tag("direction", "received")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            long poll = properties.getPollInterval().toMillis();
+            tailer.scheduleWithFixedDelay(this::tail, 0, poll, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        tailer.shutdownNow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Tell the other nodes to drop a cache entry once the current transaction commits
+     *
+     * @param cacheKey Entry within the region, or null for the whole region
+     */
+    public void record(String region, String cacheKey) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        repository.append(region, cacheKey, nodeId);
+        sentCounter.increment();
+    }
+
+    // =========================================================================
+    // Tail
+    // =========================================================================
+
+    private void tail() {
+        try {
+            boolean baseline = watermark == null;
+            if (baseline) {
+                // Local caches start empty - only rows committed from now on matter
+                watermark = repository.currentTimestamp();
+            }
+
+            LocalDateTime since = watermark.minus(properties.getCommitLag());
+            List<CacheInvalidation> rows = repository.findCreatedSince(since);
+            for (CacheInvalidation row : rows) {
+                if (applied.putIfAbsent(row.getSeq(), row.getCreated()) != null) {
+                    continue;
+                }
+                watermark = ChangeToken.latest(watermark, row.getCreated());
+                if (!baseline && !nodeId.equals(row.getNodeId())) {
+                    apply(row);
+                }
+            }
+            LocalDateTime horizon = watermark.minus(properties.getCommitLag());
+            applied.values().removeIf(created -> created.isBefore(horizon));
+
+            if (failing) {
+                failing = false;
+                log.info("Cache invalidation log readable again");
+            }
+        } catch (RuntimeException e) {
+            // One warning per outage; other nodes' changes wait until the log is readable again
+            if (!failing) {
+                failing = true;
+                log.warn("Cache invalidation log tail failed: {}", e.getMessage());
+            } else {
+                log.debug("Cache invalidation log tail still failing: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void apply(CacheInvalidation row) {
+        receivedCounter.increment();
+        handlers.orderedStream()
+                .filter(handler -> handler.region().equals(row.getRegion()))
+                .forEach(handler -> {
+                    try {
+                        handler.invalidate(row.getCacheKey());
+                    } catch (RuntimeException e) {
+                        log.warn("Cache invalidation {} ({}/{}) failed in {}: {}", row.getSeq(), row.getRegion(),
+                                row.getCacheKey(), handler.getClass().getSimpleName(), e.getMessage());
+                    }
+                });
+        log.debug("Applied cache invalidation {} ({}/{}) from {}",
+                row.getSeq(), row.getRegion(), row.getCacheKey(), row.getNodeId());
+    }
+}
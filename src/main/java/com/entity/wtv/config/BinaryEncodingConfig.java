@@ -0,0 +1,49 @@
+package com.entity.wtv.config;
+
+import com.entity.wtv.dto.FieldSelection;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson setup shared by the JSON, CBOR and Smile converters
+ *
+ * Binary encodings for bulk API clients:
+ * Registers CBOR (application/cbor) and Smile (application/x-jackson-smile)
+ * converters built from the same Jackson builder as the JSON converter, so
+ * every DTO keeps its JSON field names and value formats. Boot adds these
+ * in place of the MVC defaults, after the JSON converter - JSON stays the
+ * default for wildcard or missing Accept headers.
+ *
+ * Sparse fieldsets: DTOs that honour ?fields= carry a Jackson property filter;
+ * every mapper gets a serialize-all default so they write in full unless
+ * FieldSelectionAdvice supplies a selection.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSelectionFilterCustomizer() {
+        return builder -> builder.filters(FieldSelection.SERIALIZE_ALL);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(
+                builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder builder) {
+        // Smile back-references repeated property names (e.g. hoursByDay SUN..SAT keys)
+        return new MappingJackson2SmileHttpMessageConverter(
+                builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,66 @@
+package com.entity.wtv.config;
+
+import com.entity.wtv.bulkhead.WorkloadClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-workload bulkhead limits
+ *
+ * Bound from wtv.bulkhead.* in application.yml. The max-concurrent values
+ * should add up to no more than the connection pool size.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Master switch - when false no limits are applied
+     */
+    private boolean enabled = true;
+
+    private Limits interactive = new Limits(6, 50, Duration.ofSeconds(10));
+
+    private Limits export = new Limits(2, 4, Duration.ofSeconds(60));
+
+    private Limits calendarWrite = new Limits(1, 10, Duration.ofSeconds(10));
+
+    // No queue - a prefetch that finds no permit is dropped
+    private Limits prefetch = new Limits(1, 0, Duration.ZERO);
+
+    public Limits limitsFor(WorkloadClass workloadClass) {
+        return switch (workloadClass) {
+            case INTERACTIVE -> interactive;
+            case EXPORT -> export;
+            case CALENDAR_WRITE -> calendarWrite;
+            case PREFETCH -> prefetch;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        /**
+         * Calls of this class running at once
+         */
+        private int maxConcurrent;
+
+        /**
+         * Calls allowed to wait for a permit; further calls are rejected immediately
+         */
+        private int maxQueue;
+
+        /**
+         * Longest a call waits for a permit before it is rejected
+         */
+        private Duration maxWait;
+    }
+}
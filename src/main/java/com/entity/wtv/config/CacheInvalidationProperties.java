@@ -0,0 +1,41 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cross-node cache invalidation log settings (WTV_CACHE_INVALIDATION)
+ *
+ * Bound from wtv.cache-invalidation.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Master switch - when false nothing is written or tailed and caches are node-local.
+     * Off by default: calendar writes insert into WTV_CACHE_INVALIDATION in their own
+     * transaction, so the table and sequence must exist first (README has the Oracle DDL)
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often the log is read - the bound on how long another node serves stale data
+     */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /**
+     * Rows are stamped at insert, not commit; the tail re-reads this far back to catch
+     * transactions that committed late. Writes running longer than this can be missed
+     */
+    private Duration commitLag = Duration.ofMinutes(1);
+
+    /**
+     * Identifies this node's own rows (already applied locally); blank = pid@host
+     */
+    private String nodeId = "";
+}
@@ -0,0 +1,43 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Change-capture poller settings (TIMENON, TIMETIN, ENTEMP, ENTCODE)
+ *
+ * Bound from wtv.change-capture.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.change-capture")
+public class ChangeCaptureProperties {
+
+    /**
+     * Master switch - when false nothing is polled and data-versioned caches fall back to their TTL
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often TIMENON / TIMETIN are scanned by ENTRYDT
+     */
+    private Duration pollInterval = Duration.ofSeconds(30);
+
+    /**
+     * How often ENTEMP / ENTCODE checksums are compared (full read of the checked columns)
+     */
+    private Duration referencePollInterval = Duration.ofMinutes(5);
+
+    /**
+     * Batches waiting for listeners before the backlog is replaced by one incomplete batch
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Queued batches are merged into one delivery up to this many events
+     */
+    private int maxBatchEvents = 5000;
+}
@@ -0,0 +1,54 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limit settings for the heavy WTV endpoints
+ *
+ * Bound from wtv.limiter.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.limiter")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Master switch - when false requests are never shed
+     */
+    private boolean enabled = true;
+
+    /**
+     * Starting concurrency limit per endpoint
+     */
+    private int initialLimit = 10;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 50;
+
+    /**
+     * Short-term latency may exceed the long-term baseline by this factor
+     * before the limit starts shrinking
+     */
+    private double tolerance = 1.5;
+
+    /**
+     * Weight of each new limit estimate (0-1)
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * How long clients wait before giving up - work still running after this is cancelled
+     */
+    private Duration clientTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Threads writing streamed responses (NDJSON summaries, CSV export);
+     * streams beyond this get 503
+     */
+    private int streamThreads = 8;
+}
@@ -0,0 +1,65 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Degraded mode (stale-while-revalidate) settings for summaries and timesheets
+ *
+ * Bound from wtv.degraded.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.degraded")
+public class DegradedModeProperties {
+
+    /**
+     * Master switch - when false every call goes straight to the database
+     */
+    private boolean enabled = true;
+
+    /**
+     * Calls slower than this (connection wait + queries) count as slow and
+     * are answered from the last computed result when one exists
+     */
+    private Duration latencyThreshold = Duration.ofSeconds(5);
+
+    /**
+     * Longest a caller with no stale result waits for a slow call before a 503
+     * (shortened to the request deadline when there is one)
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    /**
+     * Consecutive slow or failed calls that open the circuit
+     */
+    private int failureThreshold = 5;
+
+    /**
+     * How long the circuit stays open before a single probe call is allowed
+     */
+    private Duration openDuration = Duration.ofSeconds(30);
+
+    /**
+     * Results older than this are never served
+     */
+    private Duration maxStaleAge = Duration.ofHours(1);
+
+    /**
+     * Maximum number of last-computed results kept for stale serving
+     */
+    private int maxEntries = 200;
+
+    /**
+     * Worker threads that run database calls on behalf of requests
+     */
+    private int poolSize = 16;
+
+    /**
+     * Calls queued for a worker before new calls are shed
+     */
+    private int queueCapacity = 64;
+}
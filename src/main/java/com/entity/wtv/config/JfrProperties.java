@@ -0,0 +1,49 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * On-demand Java Flight Recorder settings (/actuator/jfr)
+ *
+ * Bound from wtv.jfr.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.jfr")
+public class JfrProperties {
+
+    /**
+     * JDK event configuration for new recordings: default (about 1% overhead) or profile
+     */
+    private String settings = "default";
+
+    /**
+     * Recording length when the request does not give one
+     */
+    private Duration defaultDuration = Duration.ofMinutes(5);
+
+    /**
+     * Longest recording that can be requested
+     */
+    private Duration maxDuration = Duration.ofHours(1);
+
+    /**
+     * Disk space per recording; older chunks are dropped beyond it
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Finished recordings kept for download; the oldest are closed beyond this
+     */
+    private int retained = 3;
+
+    /**
+     * Bearer token for starting, downloading and discarding recordings; unset refuses them
+     */
+    private String adminToken;
+}
@@ -0,0 +1,50 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cluster job scheduler settings (WTV_JOB_LOCK leases)
+ *
+ * Bound from wtv.jobs.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.jobs")
+public class JobSchedulerProperties {
+
+    /**
+     * Master switch - when false this node never takes a lease (other nodes still run the jobs).
+     * Off by default: WTV_JOB_LOCK must exist first (see README)
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often due partitions are looked for and held leases renewed
+     */
+    private Duration tickInterval = Duration.ofSeconds(30);
+
+    /**
+     * Lease length - a crashed node's partitions are taken over after this.
+     * Must be well above tick-interval so a live node always renews in time
+     */
+    private Duration leaseDuration = Duration.ofMinutes(3);
+
+    /**
+     * Partitions this node runs at once; it does not take more leases while full
+     */
+    private int runnerThreads = 2;
+
+    /**
+     * Invalidation log purge schedule (Spring cron)
+     */
+    private String invalidationLogPurgeCron = "0 15 * * * *";
+
+    /**
+     * Invalidation log rows older than this are deleted (keep well above cache-invalidation.commit-lag)
+     */
+    private Duration invalidationLogRetention = Duration.ofDays(1);
+}
@@ -0,0 +1,25 @@
+package com.entity.wtv.config;
+
+import com.entity.wtv.change.ChangeCapturePoller;
+import com.entity.wtv.coherence.CacheInvalidationLog;
+import com.entity.wtv.jobs.ClusterJobScheduler;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager under spring.main.lazy-initialization (fast-start profile)
+ *
+ * These start their background threads in the constructor and nothing on the
+ * request path needs them, so created lazily they would never run: no change
+ * capture, no invalidations from other nodes, no cluster jobs.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundWorkers() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                ChangeCapturePoller.class, CacheInvalidationLog.class, ClusterJobScheduler.class);
+    }
+}
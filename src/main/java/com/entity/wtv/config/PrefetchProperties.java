@@ -0,0 +1,45 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Adjacent-week timesheet prefetch settings
+ *
+ * Bound from wtv.prefetch.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.prefetch")
+public class PrefetchProperties {
+
+    /**
+     * Master switch - when false timesheets are only computed on request
+     */
+    private boolean enabled = true;
+
+    /**
+     * A prefetch runs only while the interactive bulkhead has this many free
+     * permits and no queued calls; otherwise it is dropped
+     */
+    private int minFreePermits = 3;
+
+    /**
+     * Prefetches waiting for the background thread; more are dropped
+     */
+    private int queueCapacity = 20;
+
+    /**
+     * Prefetched timesheets kept (least recently used are dropped)
+     */
+    private int maxEntries = 500;
+
+    /**
+     * Unused prefetched timesheets expire after this (change capture evicts them
+     * sooner when the employee's time changes)
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
@@ -0,0 +1,45 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Serialized response cache settings for the hot read endpoints
+ *
+ * Bound from wtv.response-cache.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * Master switch - when false every request is serialized afresh
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached responses (least recently used are dropped)
+     */
+    private int maxEntries = 100;
+
+    /**
+     * Cached group summaries expire after this even if change capture saw no change
+     * (deleted entries are not captured)
+     */
+    private Duration summariesTtl = Duration.ofMinutes(5);
+
+    /**
+     * Summaries TTL when change capture is off - the data version never moves,
+     * so the TTL is the only thing that refreshes them
+     */
+    private Duration summariesTtlWithoutCapture = Duration.ofSeconds(30);
+
+    /**
+     * Bodies smaller than this are not worth a gzip variant
+     */
+    private int gzipMinSize = 1024;
+}
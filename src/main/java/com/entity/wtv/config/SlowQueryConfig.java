@@ -0,0 +1,37 @@
+package com.entity.wtv.config;
+
+import com.entity.wtv.jdbc.SlowQueryDataSource;
+import com.entity.wtv.jdbc.SlowQueryRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in SlowQueryDataSource when wtv.slow-query.enabled
+ *
+ * The post-processor is static and resolves the recorder only when the
+ * DataSource is created, so neither is initialized ahead of the other
+ * post-processors.
+ */
+@Configuration
+public class SlowQueryConfig {
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment,
+                                                              ObjectProvider<SlowQueryRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)
+                        && environment.getProperty("wtv.slow-query.enabled", Boolean.class, true)) {
+                    return new SlowQueryDataSource(dataSource, recorder.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Slow SQL statement capture settings (/actuator/slowqueries)
+ *
+ * Bound from wtv.slow-query.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.slow-query")
+public class SlowQueryProperties {
+
+    /**
+     * Master switch - when false the DataSource is not wrapped at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements whose driver time (execute plus result set fetches) reaches this are recorded
+     */
+    private Duration threshold = Duration.ofMillis(250);
+
+    /**
+     * Most recent slow statements kept with their bind values
+     */
+    private int capacity = 100;
+
+    /**
+     * Share of slow statements kept in the recent list (0-1); every one is
+     * still counted against its fingerprint
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Record bind values - /actuator/slowqueries has no authentication, so only where
+     * the endpoint is not reachable by anyone who may not see the data (local profile)
+     */
+    private boolean captureBinds = false;
+
+    /**
+     * Longer string bind values are cut to this many characters
+     */
+    private int maxBindLength = 64;
+
+    /**
+     * Distinct fingerprints tracked; statements with new ones are only counted beyond this
+     */
+    private int maxFingerprints = 200;
+}
@@ -0,0 +1,48 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Live summary updates (server-sent events) settings
+ *
+ * Bound from wtv.summary-updates.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.summary-updates")
+public class SummaryUpdatesProperties {
+
+    /**
+     * Master switch - when false subscriptions are refused with 503
+     */
+    private boolean enabled = true;
+
+    /**
+     * Comment lines sent this often keep proxies from closing idle streams
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /**
+     * Streams are closed after this long; EventSource reconnects with Last-Event-ID
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Concurrent subscriptions across all weeks
+     */
+    private int maxSubscribers = 200;
+
+    /**
+     * Rows waiting for a slow client before it is told to resync instead
+     */
+    private int maxPendingRows = 500;
+
+    /**
+     * Threads writing events to clients
+     */
+    private int senderThreads = 2;
+}
@@ -0,0 +1,44 @@
+package com.entity.wtv.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Startup warm-up settings (runs before readiness is reported)
+ *
+ * Bound from wtv.warmup.* in application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "wtv.warmup")
+public class WarmupProperties {
+
+    /**
+     * Master switch - when false the node reports ready as soon as it has started
+     */
+    private boolean enabled = true;
+
+    /**
+     * Readiness switches when warm-up finishes or after this long, whichever is first
+     */
+    private Duration budget = Duration.ofSeconds(60);
+
+    /**
+     * Groups (assignment number prefixes) with the most employees to precompute
+     */
+    private int topGroups = 5;
+
+    /**
+     * Digits of the assignment number that identify a group
+     */
+    private int groupPrefixLength = 6;
+
+    /**
+     * Accept header sent with the warm-up requests - match the UI so its first
+     * requests hit the response cache
+     */
+    private String accept = "application/json";
+}
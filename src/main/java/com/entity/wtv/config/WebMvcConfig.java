@@ -0,0 +1,32 @@
+package com.entity.wtv.config;
+
+import com.entity.wtv.web.CalendarETagInterceptor;
+import com.entity.wtv.web.ConcurrencyLimitInterceptor;
+import com.entity.wtv.web.SerializationEventAdvice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC interceptor registration for WTV Service
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final CalendarETagInterceptor calendarETagInterceptor;
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+    private final SerializationEventAdvice serializationEventAdvice;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(calendarETagInterceptor).addPathPatterns(
+                "/api/wtv/reporting-months",
+                "/api/wtv/weeks",
+                "/api/ctrs/fiscal-years/**",
+                "/api/ctrs/months/**");
+        registry.addInterceptor(concurrencyLimitInterceptor).addPathPatterns("/api/wtv/**");
+        registry.addInterceptor(serializationEventAdvice).addPathPatterns("/api/**");
+    }
+}
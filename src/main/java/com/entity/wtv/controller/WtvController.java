@@ -1,18 +1,37 @@
 package com.entity.wtv.controller;
 
+import com.entity.wtv.change.ChangeCapturePoller;
 import com.entity.wtv.dto.*;
+import com.entity.wtv.service.DegradedModeService;
+import com.entity.wtv.service.ReportDayMask;
+import com.entity.wtv.service.SummaryUpdateBroadcaster;
+import com.entity.wtv.service.TimesheetPrefetcher;
 import com.entity.wtv.service.WtvService;
+import com.entity.wtv.web.ConcurrencyLimited;
+import com.entity.wtv.web.FieldSelectionAdvice;
+import com.entity.wtv.web.StreamingResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST Controller for Weekly Time Verification
@@ -28,6 +47,12 @@ import java.util.List;
 public class WtvController {
 
     private final WtvService wtvService;
+    private final ChangeCapturePoller changeCapturePoller;
+    private final SummaryUpdateBroadcaster summaryUpdateBroadcaster;
+    private final DegradedModeService degradedModeService;
+    private final TimesheetPrefetcher timesheetPrefetcher;
+    private final StreamingResponses streamingResponses;
+    private final ObjectMapper objectMapper;
 
     // =========================================================================
     // Reporting Month / Week Selection APIs
@@ -86,6 +111,7 @@ public class WtvController {
     // =========================================================================
 
     @GetMapping("/summaries")
+    @ConcurrencyLimited("summaries")
     @Operation(summary = "Get group weekly summaries",
                description = "Returns weekly time summaries for all employees (main table view)")
     public ResponseEntity<List<WeeklyTimeSummaryDTO>> getGroupWeeklySummaries(
@@ -96,12 +122,153 @@ public class WtvController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             
             @Parameter(description = "Optional assignment number filter (prefix match)")
-            @RequestParam(required = false) String assignmentNumber) {
+            @RequestParam(required = false) String assignmentNumber,
+
+            @Parameter(description = "Optional comma-separated properties to return, e.g. assignmentNumber,hoursWorked "
+                    + "(unrequested columns are neither queried nor serialized)")
+            @RequestParam(required = false) String fields) {
         
-        log.info("GET /api/wtv/summaries?startDate={}&endDate={}&assignmentNumber={}", 
-                startDate, endDate, assignmentNumber);
+        log.info("GET /api/wtv/summaries?startDate={}&endDate={}&assignmentNumber={}&fields={}", 
+                startDate, endDate, assignmentNumber, fields);
         
-        return ResponseEntity.ok(wtvService.getGroupWeeklySummaries(startDate, endDate, assignmentNumber));
+        FieldSelection selection = FieldSelection.forSummaries(fields);
+        FieldSelectionAdvice.select(selection);
+        return toResponse(executeSummaries(startDate, endDate, assignmentNumber, selection));
+    }
+
+    @GetMapping("/summaries/columnar")
+    @ConcurrencyLimited("summaries")
+    @Operation(summary = "Get group weekly summaries as a columnar batch",
+               description = "Same rows as /summaries with one array per column - for bulk clients; "
+                       + "combine with Accept: application/cbor or application/x-jackson-smile for a binary encoding")
+    public ResponseEntity<WeeklySummaryBatchDTO> getGroupWeeklySummaryBatch(
+            @Parameter(description = "Week start date - Sunday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Week end date - Saturday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Optional assignment number filter (prefix match)")
+            @RequestParam(required = false) String assignmentNumber,
+
+            @Parameter(description = "Optional comma-separated properties to return, e.g. assignmentNumber,hoursWorked "
+                    + "(unrequested columns are neither queried nor serialized)")
+            @RequestParam(required = false) String fields) {
+
+        log.info("GET /api/wtv/summaries/columnar?startDate={}&endDate={}&assignmentNumber={}&fields={}",
+                startDate, endDate, assignmentNumber, fields);
+
+        // Shares the stale store and in-flight computation with the row-oriented endpoint
+        FieldSelection selection = FieldSelection.forSummaries(fields);
+        FieldSelectionAdvice.select(selection);
+        DegradedModeService.Served<List<WeeklyTimeSummaryDTO>> served =
+                executeSummaries(startDate, endDate, assignmentNumber, selection);
+        return toResponse(new DegradedModeService.Served<>(
+                WeeklySummaryBatchDTO.from(served.value()), served.stale(), served.age()));
+    }
+
+    @GetMapping("/summaries/changes")
+    @ConcurrencyLimited("summaries")
+    @Operation(summary = "Get group weekly summary changes",
+               description = "Rows only for employees whose time in the week was entered or changed since the "
+                       + "token, plus a new token; without since= returns every row (full = true)")
+    public ResponseEntity<SummaryChangesDTO> getGroupWeeklySummaryChanges(
+            @Parameter(description = "Week start date - Sunday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Week end date - Saturday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Optional assignment number filter (prefix match)")
+            @RequestParam(required = false) String assignmentNumber,
+
+            @Parameter(description = "Token returned by the previous call")
+            @RequestParam(required = false) String since,
+
+            @Parameter(description = "Optional comma-separated properties to return, e.g. assignmentNumber,hoursWorked "
+                    + "(unrequested columns are neither queried nor serialized)")
+            @RequestParam(required = false) String fields) {
+
+        log.info("GET /api/wtv/summaries/changes?startDate={}&endDate={}&assignmentNumber={}&since={}&fields={}",
+                startDate, endDate, assignmentNumber, since, fields);
+
+        // A stale answer carries its own older token, so the client simply catches up on the next call
+        FieldSelection selection = FieldSelection.forSummaries(fields);
+        FieldSelectionAdvice.select(selection);
+        String filter = normalizeFilter(assignmentNumber);
+        return toResponse(degradedModeService.execute(
+                "changes:" + startDate + ":" + endDate + ":" + Objects.toString(filter, "")
+                        + ":" + Objects.toString(since, "") + ":" + selection.cacheKey(),
+                () -> wtvService.getWeeklySummaryChanges(startDate, endDate, filter, since, selection)));
+    }
+
+    @GetMapping(value = "/summaries/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to live group weekly summary updates",
+               description = "Server-sent events: 'summaries' events carry recomputed rows for employees with "
+                       + "new time in the week; the event id resumes the stream or feeds /summaries/changes")
+    public SseEmitter streamGroupWeeklySummaryUpdates(
+            @Parameter(description = "Week start date - Sunday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Week end date - Saturday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Optional assignment number filter (prefix match)")
+            @RequestParam(required = false) String assignmentNumber,
+
+            @Parameter(description = "Id of the last event received, sent by EventSource on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        log.info("GET /api/wtv/summaries/stream?startDate={}&endDate={}&assignmentNumber={}",
+                startDate, endDate, assignmentNumber);
+
+        return summaryUpdateBroadcaster.subscribe(startDate, endDate, assignmentNumber, lastEventId);
+    }
+
+    @GetMapping(value = "/summaries", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    // Own limit - a stream lasts as long as the client takes to read it, which says
+    // nothing about the latency of the JSON variant
+    @ConcurrencyLimited("summaries-stream")
+    @Operation(summary = "Stream group weekly summaries",
+               description = "Same rows as the JSON variant as newline-delimited JSON in ROID order, "
+                       + "each written as soon as it is computed (Accept: application/x-ndjson)")
+    public ResponseEntity<ResponseBodyEmitter> streamGroupWeeklySummaries(
+            @Parameter(description = "Week start date - Sunday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+            @Parameter(description = "Week end date - Saturday (yyyy-MM-dd)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Optional assignment number filter (prefix match)")
+            @RequestParam(required = false) String assignmentNumber,
+
+            @Parameter(description = "Optional comma-separated properties to return, e.g. assignmentNumber,hoursWorked "
+                    + "(unrequested columns are neither queried nor serialized)")
+            @RequestParam(required = false) String fields) {
+
+        log.info("GET /api/wtv/summaries (ndjson)?startDate={}&endDate={}&assignmentNumber={}&fields={}",
+                startDate, endDate, assignmentNumber, fields);
+
+        // Checked before streaming starts - afterwards the status is already sent
+        ReportDayMask.checkRange(startDate, endDate);
+        FieldSelection selection = FieldSelection.forSummaries(fields);
+        ObjectWriter writer = objectMapper.writer(selection.toFilterProvider());
+        ResponseBodyEmitter body = streamingResponses.stream("summaries", out ->
+                wtvService.streamGroupWeeklySummaries(startDate, endDate, assignmentNumber, selection, summary -> {
+                    try {
+                        // Flushed per row so each summary reaches the client when ready
+                        out.write(writer.writeValueAsBytes(summary));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        // Client went away - abort the scan and release the cursor
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     // =========================================================================
@@ -109,6 +276,7 @@ public class WtvController {
     // =========================================================================
 
     @GetMapping("/employees/{roid}/timesheet")
+    @ConcurrencyLimited("timesheet")
     @Operation(summary = "Get employee timesheet detail",
                description = "Returns complete timesheet with daily summary, case time, and non-case time")
     public ResponseEntity<EmployeeTimesheetDTO> getEmployeeTimesheet(
@@ -119,12 +287,30 @@ public class WtvController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
             @Parameter(description = "Week end date - Saturday (yyyy-MM-dd)")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+            @Parameter(description = "Optional comma-separated properties to return, e.g. caseTimeEntries "
+                    + "(unrequested tables are neither queried nor serialized)")
+            @RequestParam(required = false) String fields) {
         
-        log.info("GET /api/wtv/employees/{}/timesheet?startDate={}&endDate={}", 
-                roid, startDate, endDate);
+        log.info("GET /api/wtv/employees/{}/timesheet?startDate={}&endDate={}&fields={}", 
+                roid, startDate, endDate, fields);
         
-        return ResponseEntity.ok(wtvService.getEmployeeTimesheet(roid, startDate, endDate));
+        FieldSelection selection = FieldSelection.forTimesheet(fields);
+        FieldSelectionAdvice.select(selection);
+        // A prefetched week says how old it is, as a cached response would
+        TimesheetPrefetcher.Prefetched prefetched =
+                timesheetPrefetcher.take(roid, startDate, endDate, selection).orElse(null);
+        ResponseEntity<EmployeeTimesheetDTO> response = prefetched != null
+                ? ResponseEntity.ok()
+                        .header(HttpHeaders.AGE, String.valueOf(prefetched.age().toSeconds()))
+                        .body(prefetched.timesheet())
+                : toResponse(degradedModeService.execute(
+                        "timesheet:" + roid + ":" + startDate + ":" + endDate + ":" + selection.cacheKey(),
+                        () -> wtvService.getEmployeeTimesheet(roid, startDate, endDate, selection)));
+        // Users page week by week - have the neighbours ready if there is capacity to spare
+        timesheetPrefetcher.prefetchAdjacent(roid, startDate, endDate, selection);
+        return response;
     }
 
     // =========================================================================
@@ -132,9 +318,10 @@ public class WtvController {
     // =========================================================================
 
     @GetMapping("/summaries/export")
+    @ConcurrencyLimited("export")
     @Operation(summary = "Export group summaries to CSV",
                description = "Returns weekly time summaries as CSV download")
-    public ResponseEntity<String> exportSummariesToCsv(
+    public ResponseEntity<ResponseBodyEmitter> exportSummariesToCsv(
             @Parameter(description = "Week start date - Sunday (yyyy-MM-dd)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             
@@ -147,14 +334,69 @@ public class WtvController {
         log.info("GET /api/wtv/summaries/export?startDate={}&endDate={}&assignmentNumber={}", 
                 startDate, endDate, assignmentNumber);
         
-        String csv = wtvService.exportSummariesToCsv(startDate, endDate, assignmentNumber);
-        
+        // Rows go out as they are computed, so a client that hangs up stops the export
+        ReportDayMask.checkRange(startDate, endDate);
+        ResponseBodyEmitter csv = streamingResponses.stream("export", out ->
+                wtvService.exportSummariesToCsv(startDate, endDate, assignmentNumber, line -> {
+                    try {
+                        out.write(line.getBytes(StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
         return ResponseEntity.ok()
                 .header("Content-Type", "text/csv")
                 .header("Content-Disposition", "attachment; filename=wtv_export_" + startDate + ".csv")
                 .body(csv);
     }
 
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    /**
+     * Group summaries through degraded mode - shared by the list and columnar views
+     *
+     * Identical concurrent requests share one computation there, unless it was
+     * started before the last change-capture batch: ResponseCacheFilter keys the
+     * body by the data version it read, so the rows must be at least that new.
+     * The DTOs are mutable, so the shared list is read-only and each response
+     * gets copies.
+     */
+    private DegradedModeService.Served<List<WeeklyTimeSummaryDTO>> executeSummaries(
+            LocalDate startDate, LocalDate endDate, String assignmentNumber, FieldSelection fields) {
+        String filter = normalizeFilter(assignmentNumber);
+        return degradedModeService.execute(
+                "summaries:" + startDate + ":" + endDate + ":" + Objects.toString(filter, "")
+                        + ":" + fields.cacheKey(),
+                changeCapturePoller.getDataVersion(),
+                () -> Collections.unmodifiableList(
+                        wtvService.getGroupWeeklySummaries(startDate, endDate, filter, fields)),
+                summaries -> summaries.stream().map(summary -> summary.toBuilder().build()).toList());
+    }
+
+    /**
+     * Assignment filter as it is keyed and passed to the service - blank means no filter
+     */
+    private static String normalizeFilter(String assignmentNumber) {
+        return assignmentNumber == null || assignmentNumber.isBlank() ? null : assignmentNumber.trim();
+    }
+
+    /**
+     * Build a 200 response, marking results served from the last computation with
+     * Age and Warning 110 headers
+     */
+    private static <T> ResponseEntity<T> toResponse(DegradedModeService.Served<T> served) {
+        if (!served.stale()) {
+            return ResponseEntity.ok(served.value());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(served.age().toSeconds()))
+                .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                .body(served.value());
+    }
+
     // =========================================================================
     // Health Check
     // =========================================================================
@@ -1,5 +1,6 @@
 package com.entity.wtv.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.*;
 import java.time.LocalDate;
 import java.util.List;
@@ -14,6 +15,7 @@ import java.math.BigDecimal;
  * 2. Case TIN entries
  * 3. Non-Case Time entries
  */
+@JsonFilter(FieldSelection.FILTER_ID)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,155 @@
+package com.entity.wtv.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset requested with ?fields=a,b,c
+ *
+ * Read by the service to skip the queries behind properties nobody asked
+ * for, and by Jackson (through the FILTER_ID property filter on the summary
+ * and timesheet DTOs) to leave them out of the response. Names are the JSON
+ * property names; a missing or blank parameter selects everything, so the
+ * default contract is unchanged.
+ */
+public final class FieldSelection {
+
+    /**
+     * Jackson filter id carried by DTOs that honour ?fields=
+     */
+    public static final String FILTER_ID = "fieldSelection";
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    /**
+     * Serializes every property - used whenever no selection is in effect
+     */
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    private static final Set<String> SUMMARY_FIELDS = Set.of(
+            "assignmentNumber", "employeeName", "tourOfDutyHours", "adjustedTour", "hoursWorked",
+            "caseDirectTime", "codeDirectTime", "overheadTime", "reportDays", "reportDayMask",
+            "nonCaseDayMask", "caseDayMask", "tourOfDutyType", "lastDateEod", "tour");
+
+    private static final Set<String> TIMESHEET_FIELDS = Set.of(
+            "assignmentNumber", "employeeName", "weekStartDate", "weekEndDate", "reportingMonth",
+            "dayLabels", "weekRange", "dailySummary", "caseTimeEntries", "totalDirectCaseTime",
+            "nonCaseTimeEntries", "totalNonCreditDirectCaseTime");
+
+    /**
+     * Always written so a row can be identified (and a batch sized)
+     */
+    private static final Set<String> IDENTITY_FIELDS = Set.of("assignmentNumber", "rowCount");
+
+    /**
+     * Selected names, or null for all
+     */
+    private final Set<String> names;
+
+    private FieldSelection(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parse a fields= parameter for the group summary endpoints
+     *
+     * @throws IllegalArgumentException if a name is not a summary property
+     */
+    public static FieldSelection forSummaries(String fields) {
+        return parse(fields, SUMMARY_FIELDS);
+    }
+
+    /**
+     * Parse a fields= parameter for the employee timesheet endpoint
+     *
+     * @throws IllegalArgumentException if a name is not a timesheet property
+     */
+    public static FieldSelection forTimesheet(String fields) {
+        return parse(fields, TIMESHEET_FIELDS);
+    }
+
+    private static FieldSelection parse(String fields, Set<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+        for (String name : names) {
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Allowed: "
+                        + new TreeSet<>(allowed));
+            }
+        }
+        if (names.containsAll(allowed)) {
+            return ALL;
+        }
+        Set<String> selected = new LinkedHashSet<>(IDENTITY_FIELDS);
+        selected.addAll(names);
+        return new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * True if any of the given properties was requested
+     */
+    public boolean includesAny(String... properties) {
+        if (names == null) {
+            return true;
+        }
+        for (String property : properties) {
+            if (names.contains(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Jackson filters that write only the selected properties
+     */
+    public FilterProvider toFilterProvider() {
+        if (names == null) {
+            return SERIALIZE_ALL;
+        }
+        return new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Canonical form for cache and coalescing keys ("*" for all)
+     */
+    public String cacheKey() {
+        return names == null ? "*" : String.join(",", new TreeSet<>(names));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof FieldSelection other && Objects.equals(names, other.names));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return cacheKey();
+    }
+}
@@ -0,0 +1,36 @@
+package com.entity.wtv.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental refresh of the group weekly summary
+ *
+ * Rows for employees whose time in the week was entered or changed since the
+ * caller's token; the client replaces those rows by assignmentNumber and keeps
+ * the rest. Pass token back as since= on the next refresh.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SummaryChangesDTO {
+
+    /**
+     * Watermark for the next call (opaque)
+     */
+    private String token;
+
+    /**
+     * True when no since= was given and summaries holds every eligible employee
+     */
+    private boolean full;
+
+    /**
+     * New rows for the changed employees, in ROID order
+     */
+    @Builder.Default
+    private List<WeeklyTimeSummaryDTO> summaries = new ArrayList<>();
+}
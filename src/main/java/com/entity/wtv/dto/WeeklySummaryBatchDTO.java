@@ -0,0 +1,90 @@
+package com.entity.wtv.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar batch of Group Weekly Hours Verification rows
+ *
+ * Same data as a List of WeeklyTimeSummaryDTO, but one array per column
+ * instead of one object per row: field names are written once per batch
+ * rather than once per employee. Element i of every column belongs to row i.
+ *
+ * Intended for bulk/reporting clients; the UI keeps the row-oriented list.
+ */
+@JsonFilter(FieldSelection.FILTER_ID)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeeklySummaryBatchDTO {
+
+    /**
+     * Number of rows - the length of every column
+     */
+    private int rowCount;
+
+    private List<Long> assignmentNumber;
+    private List<String> employeeName;
+    private List<BigDecimal> tourOfDutyHours;
+    private List<BigDecimal> adjustedTour;
+    private List<BigDecimal> hoursWorked;
+    private List<BigDecimal> caseDirectTime;
+    private List<BigDecimal> codeDirectTime;
+    private List<BigDecimal> overheadTime;
+    private List<Integer> reportDays;
+    private List<Long> reportDayMask;
+    private List<Long> nonCaseDayMask;
+    private List<Long> caseDayMask;
+    private List<String> tourOfDutyType;
+    private List<String> lastDateEod;
+    private List<Integer> tour;
+
+    /**
+     * Pivot summary rows into columns, preserving row order
+     */
+    public static WeeklySummaryBatchDTO from(List<WeeklyTimeSummaryDTO> rows) {
+        int n = rows.size();
+        WeeklySummaryBatchDTO batch = WeeklySummaryBatchDTO.builder()
+                .rowCount(n)
+                .assignmentNumber(new ArrayList<>(n))
+                .employeeName(new ArrayList<>(n))
+                .tourOfDutyHours(new ArrayList<>(n))
+                .adjustedTour(new ArrayList<>(n))
+                .hoursWorked(new ArrayList<>(n))
+                .caseDirectTime(new ArrayList<>(n))
+                .codeDirectTime(new ArrayList<>(n))
+                .overheadTime(new ArrayList<>(n))
+                .reportDays(new ArrayList<>(n))
+                .reportDayMask(new ArrayList<>(n))
+                .nonCaseDayMask(new ArrayList<>(n))
+                .caseDayMask(new ArrayList<>(n))
+                .tourOfDutyType(new ArrayList<>(n))
+                .lastDateEod(new ArrayList<>(n))
+                .tour(new ArrayList<>(n))
+                .build();
+
+        for (WeeklyTimeSummaryDTO row : rows) {
+            batch.assignmentNumber.add(row.getAssignmentNumber());
+            batch.employeeName.add(row.getEmployeeName());
+            batch.tourOfDutyHours.add(row.getTourOfDutyHours());
+            batch.adjustedTour.add(row.getAdjustedTour());
+            batch.hoursWorked.add(row.getHoursWorked());
+            batch.caseDirectTime.add(row.getCaseDirectTime());
+            batch.codeDirectTime.add(row.getCodeDirectTime());
+            batch.overheadTime.add(row.getOverheadTime());
+            batch.reportDays.add(row.getReportDays());
+            batch.reportDayMask.add(row.getReportDayMask());
+            batch.nonCaseDayMask.add(row.getNonCaseDayMask());
+            batch.caseDayMask.add(row.getCaseDayMask());
+            batch.tourOfDutyType.add(row.getTourOfDutyType());
+            batch.lastDateEod.add(row.getLastDateEod());
+            batch.tour.add(row.getTour());
+        }
+        return batch;
+    }
+}
@@ -1,5 +1,6 @@
 package com.entity.wtv.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.*;
 import java.math.BigDecimal;
 
@@ -11,10 +12,11 @@ import java.math.BigDecimal;
  * 
  * Legacy source: getTimeVerifyData() in entity_common.pc
  */
+@JsonFilter(FieldSelection.FILTER_ID)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class WeeklyTimeSummaryDTO {
 
     /**
@@ -91,12 +93,33 @@ public class WeeklyTimeSummaryDTO {
      * Report Days
      * Column 8: Report Days
      * 
-     * Calculation: COUNT(DISTINCT rptdt from TIMENON where timecode != '750')
-     *              + COUNT(DISTINCT rptdt from TIMETIN where not exists matching TIMENON)
+     * Calculation: popcount(nonCaseDayMask | caseDayMask)
+     *              i.e. distinct rptdt from TIMENON (timecode not in '750','760')
+     *              union distinct rptdt from TIMETIN
      */
     @Builder.Default
     private Integer reportDays = 0;
 
+    /**
+     * Days with reported time (union of the two masks below)
+     * Bit 0 = week start (SUN) ... bit 6 = SAT
+     * Lets the UI show which days are missing without extra calls
+     */
+    @Builder.Default
+    private Long reportDayMask = 0L;
+
+    /**
+     * Days with TIMENON entries, excluding 750/760 (bit 0 = SUN)
+     */
+    @Builder.Default
+    private Long nonCaseDayMask = 0L;
+
+    /**
+     * Days with TIMETIN entries (bit 0 = SUN)
+     */
+    @Builder.Default
+    private Long caseDayMask = 0L;
+
     /**
      * Tour of Duty Type
      * Column 9: Tour of Duty Type
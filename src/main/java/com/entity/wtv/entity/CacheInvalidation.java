@@ -0,0 +1,51 @@
+package com.entity.wtv.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * WTV_CACHE_INVALIDATION - Cross-node cache invalidation log
+ *
+ * Primary Key: SEQ (WTV_CACHE_INVALIDATION_SEQ)
+ *
+ * One row per cache change, inserted in the writing transaction and read by
+ * every node's tailer. Rows are only inserted with a native statement so SEQ
+ * and CREATED come from the database, not the node.
+ */
+@Entity
+@Table(name = "WTV_CACHE_INVALIDATION")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @Column(name = "SEQ")
+    private Long seq;
+
+    /**
+     * Cache region (e.g., "calendar", "time")
+     */
+    @Column(name = "REGION", length = 30)
+    private String region;
+
+    /**
+     * Entry within the region, or null for the whole region
+     */
+    @Column(name = "CACHE_KEY", length = 100)
+    private String cacheKey;
+
+    /**
+     * Node that wrote the row - it has already invalidated locally
+     */
+    @Column(name = "NODE_ID", length = 100)
+    private String nodeId;
+
+    /**
+     * Database time of the insert (not the commit)
+     */
+    @Column(name = "CREATED")
+    private LocalDateTime created;
+}
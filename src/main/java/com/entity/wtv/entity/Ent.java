@@ -156,6 +156,13 @@ public class Ent {
      * - Type 2: EIN format (XX-XXXXXXX)
      */
     public String getFormattedTin() {
+        return formatTin(tin, tintt);
+    }
+
+    /**
+     * Format a TIN value - shared with read-only projections
+     */
+    public static String formatTin(Long tin, Integer tintt) {
         if (tin == null) return "";
         
         String tinStr = String.format("%09d", tin);
@@ -173,6 +180,13 @@ public class Ent {
      * Get display name for taxpayer
      */
     public String getTaxpayerName() {
+        return taxpayerName(tp, tpctrl);
+    }
+
+    /**
+     * Display name from TP, falling back to TPCTRL - shared with read-only projections
+     */
+    public static String taxpayerName(String tp, String tpctrl) {
         if (tp != null && !tp.isBlank()) {
             return tp.trim();
         }
@@ -165,6 +165,13 @@ public class Entemp {
      * Matches legacy: decode(tour,1,'REG',2,'5/4/9',3,'4/10',4,'PT',5,'MAXI','-')
      */
     public String getTourOfDutyType() {
+        return tourOfDutyType(tour);
+    }
+
+    /**
+     * Decode a TOUR value - shared with read-only projections
+     */
+    public static String tourOfDutyType(Integer tour) {
         if (tour == null) return "-";
         return switch (tour) {
             case 1 -> "REG";
@@ -2,6 +2,8 @@ package com.entity.wtv.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDate;
 
 /**
@@ -16,14 +18,16 @@ import java.time.LocalDate;
  * 
  * Format: RPTMONTH = MMMyyyy (e.g., "OCT2026", "NOV2026")
  * Fiscal Year runs October to September
+ *
+ * RPTMONTH is an assigned key, so the entity reports its own new/persisted
+ * state (Persistable) - saving a freshly built month inserts directly instead
+ * of selecting first to decide between persist and merge.
  */
 @Entity
 @Table(name = "ENTMONTH")
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
-@Builder
-public class Entmonth {
+public class Entmonth implements Persistable<String> {
 
     /**
      * Reporting Month identifier - Primary Key
@@ -81,14 +85,12 @@ public class Entmonth {
      * Only one version of a fiscal year should be active
      */
     @Column(name = "ACTIVE", length = 1)
-    @Builder.Default
     private String active = "Y";
 
     /**
      * Total holidays for this month (new field for CTRS Calendar)
      */
     @Column(name = "HOLIDAYS")
-    @Builder.Default
     private Integer holidays = 0;
 
     /**
@@ -104,6 +106,59 @@ public class Entmonth {
     @Column(name = "WEEK_DATA", length = 1000)
     private String weekData;
 
+    /**
+     * True until the month has been persisted or was loaded from the database
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    /**
+     * All persistent columns - the new/persisted flag is not a constructor
+     * argument, so a built month is always new until saved or loaded.
+     * ACTIVE defaults to 'Y' and HOLIDAYS to 0 when not given.
+     */
+    @Builder
+    public Entmonth(String rptmonth, LocalDate startdt, LocalDate enddt, Integer weeks,
+                    Integer startcyc, Integer endcyc, Integer workdays, LocalDate rptnational,
+                    String active, Integer holidays, Integer hours, String weekData) {
+        this.rptmonth = rptmonth;
+        this.startdt = startdt;
+        this.enddt = enddt;
+        this.weeks = weeks;
+        this.startcyc = startcyc;
+        this.endcyc = endcyc;
+        this.workdays = workdays;
+        this.rptnational = rptnational;
+        this.active = active != null ? active : "Y";
+        this.holidays = holidays != null ? holidays : 0;
+        this.hours = hours;
+        this.weekData = weekData;
+    }
+
+    // =========================================================================
+    // Persistable
+    // =========================================================================
+
+    @Override
+    public String getId() {
+        return rptmonth;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
     // =========================================================================
     // Helper Methods
     // =========================================================================
@@ -138,6 +193,29 @@ public class Entmonth {
         return rptmonth.substring(0, 3);
     }
 
+    /**
+     * Position within the fiscal year (OCT=1, NOV=2, ..., SEP=12)
+     */
+    public int getFiscalMonthOrder() {
+        String abbrev = getMonthAbbrev();
+        if (abbrev == null) return 13;
+        return switch (abbrev.toUpperCase()) {
+            case "OCT" -> 1;
+            case "NOV" -> 2;
+            case "DEC" -> 3;
+            case "JAN" -> 4;
+            case "FEB" -> 5;
+            case "MAR" -> 6;
+            case "APR" -> 7;
+            case "MAY" -> 8;
+            case "JUN" -> 9;
+            case "JUL" -> 10;
+            case "AUG" -> 11;
+            case "SEP" -> 12;
+            default -> 13;
+        };
+    }
+
     /**
      * Get full month name
      */
@@ -0,0 +1,66 @@
+package com.entity.wtv.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * WTV_JOB_LOCK - Scheduled job lease per partition
+ *
+ * Primary Key: JOB_NAME + PARTITION_NO
+ *
+ * A node owns a partition while LEASE_UNTIL is in the future and renews it
+ * while the job runs; an expired lease (crashed node) can be taken by any
+ * node. NEXT_RUN keeps a finished partition from running again on another
+ * node before its next scheduled time. All times are database time.
+ */
+@Entity
+@Table(name = "WTV_JOB_LOCK")
+@IdClass(JobLockId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLock {
+
+    @Id
+    @Column(name = "JOB_NAME", length = 50)
+    private String jobName;
+
+    @Id
+    @Column(name = "PARTITION_NO")
+    private Integer partitionNo;
+
+    /**
+     * Node holding the lease, or null when free
+     */
+    @Column(name = "OWNER", length = 100)
+    private String owner;
+
+    @Column(name = "LEASE_UNTIL")
+    private LocalDateTime leaseUntil;
+
+    /**
+     * Earliest time the partition may run again
+     */
+    @Column(name = "NEXT_RUN")
+    private LocalDateTime nextRun;
+
+    @Column(name = "LAST_OWNER", length = 100)
+    private String lastOwner;
+
+    @Column(name = "LAST_START")
+    private LocalDateTime lastStart;
+
+    @Column(name = "LAST_END")
+    private LocalDateTime lastEnd;
+
+    /**
+     * RUNNING, SUCCEEDED, FAILED or LEASE_LOST
+     */
+    @Column(name = "LAST_STATUS", length = 20)
+    private String lastStatus;
+
+    @Column(name = "LAST_ERROR", length = 400)
+    private String lastError;
+}
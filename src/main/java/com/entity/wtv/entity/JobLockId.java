@@ -0,0 +1,19 @@
+package com.entity.wtv.entity;
+
+import lombok.*;
+import java.io.Serializable;
+
+/**
+ * Composite Primary Key for WTV_JOB_LOCK table
+ *
+ * One lease row per JOB_NAME + PARTITION_NO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class JobLockId implements Serializable {
+
+    private String jobName;
+    private Integer partitionNo;
+}
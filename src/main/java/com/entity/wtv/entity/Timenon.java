@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * TIMENON - Non-Case Time Entries Table
@@ -80,6 +81,13 @@ public class Timenon {
     @Column(name = "EXTRDT")
     private LocalDate extrdt;
 
+    /**
+     * When the entry was keyed or last changed (Oracle DATE - carries the time of day)
+     * Drives /summaries/changes; indexed (ENTRYDT, RPTDT, ROID)
+     */
+    @Column(name = "ENTRYDT")
+    private LocalDateTime entrydt;
+
     /**
      * Employee ID number
      */
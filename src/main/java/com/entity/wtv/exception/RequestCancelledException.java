@@ -0,0 +1,11 @@
+package com.entity.wtv.exception;
+
+/**
+ * Exception thrown when work is abandoned because every client waiting for it has gone away
+ */
+public class RequestCancelledException extends RuntimeException {
+
+    public RequestCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package com.entity.wtv.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the service sheds a request instead of calling the database
+ * (circuit open, no stale result available, executor saturated)
+ *
+ * Mapped to 503 with a Retry-After header
+ */
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Seconds the client should wait before retrying
+     */
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,277 @@
+package com.entity.wtv.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times every statement and hands slow ones to SlowQueryRecorder
+ *
+ * Connections, statements and result sets are JDK proxies over the pool's own
+ * objects. Per statement the fast path costs a few nanoTime() calls and one
+ * array store per bind; SQL normalization, bind rendering and the stack walk
+ * only happen for statements over the threshold.
+ *
+ * The time counted is driver time: the execute call plus every
+ * ResultSet.next(), so a streamed read is charged for its fetches but not for
+ * the work the caller does between rows. It is checked when the result set
+ * or statement is closed, or when the statement is executed again.
+ *
+ * Unwrapping (DataSourceUnwrapper, Wrapper.unwrap) still reaches the pool,
+ * so the Hikari metrics and health checks are unaffected.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryRecorder recorder;
+
+    public SlowQueryDataSource(DataSource target, SlowQueryRecorder recorder) {
+        super(target);
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(), new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, obtainTargetDataSource().getConnection(username, password),
+                new ConnectionHandler());
+    }
+
+    // =========================================================================
+    // Proxies
+    // =========================================================================
+
+    private abstract static class Handler implements InvocationHandler {
+
+        Object target;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Identity semantics - the proxy is what callers hold and use as a map key
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return handle(method, args);
+            }
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final class ConnectionHandler extends Handler {
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = call(method, args);
+            String name = method.getName();
+            if (result instanceof Statement statement
+                    && (name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrap(method.getReturnType(), statement, new StatementHandler(sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler extends Handler {
+
+        /**
+         * Prepared SQL, or the SQL of the last Statement.execute*(sql)
+         */
+        private String sql;
+        private Object[] binds;
+        /**
+         * Highest parameter index set - binds is over-allocated
+         */
+        private int bindCount;
+        /**
+         * The current binds belong to a pending execution - copy before changing them
+         */
+        private boolean bindsShared;
+        private int batchSize;
+
+        // Pending execution - one at a time per statement
+        private boolean pending;
+        private String pendingSql;
+        private Object[] pendingBinds;
+        private int pendingBindCount;
+        private int pendingBatchSize;
+        private long pendingNanos;
+        private long pendingRows;
+
+        StatementHandler(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return call(method, args);
+            }
+            if (name.startsWith("execute")) {
+                return execute(method, args, name);
+            }
+            switch (name) {
+                case "addBatch":
+                    if (args != null && args.length == 1 && args[0] instanceof String batchSql) {
+                        sql = batchSql;
+                    }
+                    batchSize++;
+                    bindsShared = true;
+                    break;
+                case "clearBatch":
+                    batchSize = 0;
+                    break;
+                case "clearParameters":
+                    binds = null;
+                    bindCount = 0;
+                    bindsShared = false;
+                    break;
+                case "getResultSet":
+                    Object resultSet = call(method, args);
+                    return resultSet instanceof ResultSet rs && pending ? wrapResultSet(rs) : resultSet;
+                case "close":
+                    finish();
+                    break;
+                default:
+                    break;
+            }
+            return call(method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (binds == null || bindsShared) {
+                binds = binds == null ? new Object[Math.max(index + 1, 8)] : binds.clone();
+                bindsShared = false;
+            }
+            if (index >= binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index + 1, binds.length * 2));
+            }
+            binds[index] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        private Object execute(Method method, Object[] args, String name) throws Throwable {
+            finish();
+            if (args != null && args.length > 0 && args[0] instanceof String executedSql) {
+                sql = executedSql;
+            }
+            pending = true;
+            pendingSql = sql;
+            pendingBinds = binds;
+            pendingBindCount = bindCount;
+            pendingBatchSize = name.startsWith("executeBatch") || name.startsWith("executeLargeBatch") ? batchSize : 0;
+            pendingRows = -1;
+            bindsShared = true;
+
+            long started = System.nanoTime();
+            Object result;
+            try {
+                result = call(method, args);
+            } finally {
+                pendingNanos = System.nanoTime() - started;
+            }
+
+            if (result instanceof ResultSet resultSet) {
+                pendingRows = 0;
+                return wrapResultSet(resultSet);
+            }
+            if (result instanceof Integer || result instanceof Long) {
+                pendingRows = ((Number) result).longValue();
+            } else if (result instanceof int[] counts) {
+                pendingRows = Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+                batchSize = 0;
+            } else if (result instanceof long[] counts) {
+                pendingRows = Arrays.stream(counts).filter(count -> count > 0).sum();
+                batchSize = 0;
+            }
+            if (!Boolean.TRUE.equals(result)) {
+                // No result set to read - the execution is complete
+                finish();
+            }
+            return result;
+        }
+
+        private Object wrapResultSet(ResultSet resultSet) {
+            return wrap(ResultSet.class, resultSet, new ResultSetHandler(this));
+        }
+
+        void fetched(long nanos, boolean row) {
+            pendingNanos += nanos;
+            if (row) {
+                pendingRows = Math.max(pendingRows, 0) + 1;
+            }
+        }
+
+        void finish() {
+            if (!pending) {
+                return;
+            }
+            pending = false;
+            if (recorder.isSlow(pendingNanos) && pendingSql != null) {
+                Object[] executedBinds = pendingBinds == null ? null : Arrays.copyOf(pendingBinds, pendingBindCount + 1);
+                recorder.record(pendingSql, executedBinds, pendingRows, pendingBatchSize, pendingNanos);
+            }
+            pendingBinds = null;
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+
+        private final StatementHandler statement;
+
+        ResultSetHandler(StatementHandler statement) {
+            this.statement = statement;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long started = System.nanoTime();
+                Object hasRow = call(method, args);
+                statement.fetched(System.nanoTime() - started, Boolean.TRUE.equals(hasRow));
+                return hasRow;
+            }
+            if (name.equals("close")) {
+                try {
+                    return call(method, args);
+                } finally {
+                    statement.finish();
+                }
+            }
+            return call(method, args);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, Object target, Handler handler) {
+        handler.target = target;
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,259 @@
+package com.entity.wtv.jdbc;
+
+import com.entity.wtv.config.SlowQueryProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the statements SlowQueryDataSource reports over wtv.slow-query.threshold
+ *
+ * Statements under the threshold never get here. A slow one is counted
+ * against its SQL fingerprint (count, total and max time, last caller and
+ * Oracle SQL_ID), and a sample of them is kept in a ring of the most recent
+ * with bind values, caller and row count.
+ *
+ * Metrics: wtv.sql.slow
+ */
+@Component
+@Slf4j
+public class SlowQueryRecorder {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String APPLICATION_PACKAGE = "com.entity.wtv.";
+    private static final String JDBC_PACKAGE = SlowQueryRecorder.class.getPackageName() + ".";
+
+    private final SlowQueryProperties properties;
+    private final long thresholdNanos;
+    private final Counter slowCounter;
+
+    // Guarded by this
+    private final SlowQuery[] recent;
+    private int next;
+    private long recorded;
+    private long untracked;
+    private final Map<String, Fingerprint> fingerprints = new LinkedHashMap<>();
+
+    public SlowQueryRecorder(SlowQueryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.thresholdNanos = properties.getThreshold().toNanos();
+        this.recent = new SlowQuery[properties.getCapacity()];
+        this.slowCounter = Counter.builder("wtv.sql.slow")
+                .description("SQL statements over the slow-query threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cheap check the proxies make before anything else is built
+     */
+    boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    /**
+     * Record a slow statement; runs on the thread that executed it so the caller can be found
+     *
+     * @param binds     Bind values by parameter index (0 unused), or null
+     * @param rows      Rows fetched or updated, or -1 if unknown
+     * @param batchSize Parameter sets in a batch, or 0 for a single execution
+     */
+    void record(String sql, Object[] binds, long rows, int batchSize, long elapsedNanos) {
+        slowCounter.increment();
+        String normalized = SqlFingerprint.normalize(sql);
+        String fingerprintId = SqlFingerprint.id(normalized);
+        String sqlId = SqlFingerprint.oracleSqlId(sql);
+        String caller = findCaller();
+        boolean sampled = properties.getSampleRate() >= 1.0
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        List<String> renderedBinds = sampled && properties.isCaptureBinds() ? renderBinds(binds) : null;
+
+        synchronized (this) {
+            recorded++;
+            Fingerprint fingerprint = fingerprints.get(fingerprintId);
+            if (fingerprint == null && fingerprints.size() < properties.getMaxFingerprints()) {
+                fingerprint = new Fingerprint(fingerprintId, normalized);
+                fingerprints.put(fingerprintId, fingerprint);
+            }
+            if (fingerprint != null) {
+                fingerprint.add(elapsedNanos, caller, sqlId);
+            } else {
+                untracked++;
+            }
+            if (sampled && recent.length > 0) {
+                recent[next] = new SlowQuery(Instant.now(), fingerprintId, sqlId, sql, renderedBinds, caller,
+                        rows, batchSize, millis(elapsedNanos), Thread.currentThread().getName());
+                next = (next + 1) % recent.length;
+            }
+        }
+        log.debug("Slow SQL {} ms in {}: {}", millis(elapsedNanos), caller, normalized);
+    }
+
+    // =========================================================================
+    // Views
+    // =========================================================================
+
+    /**
+     * Fingerprints by total time, then the most recent slow statements, newest first
+     */
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("thresholdMs", properties.getThreshold().toMillis());
+        status.put("recorded", recorded);
+        status.put("untracked", untracked);
+        status.put("fingerprints", fingerprints.values().stream()
+                .sorted(Comparator.comparingLong((Fingerprint f) -> f.totalNanos).reversed())
+                .map(Fingerprint::describe)
+                .toList());
+        status.put("recent", recent(null));
+        return status;
+    }
+
+    /**
+     * One fingerprint with its recent statements, or null if unknown
+     */
+    public synchronized Map<String, Object> getFingerprint(String fingerprintId) {
+        Fingerprint fingerprint = fingerprints.get(fingerprintId);
+        if (fingerprint == null) {
+            return null;
+        }
+        Map<String, Object> description = fingerprint.describe();
+        description.put("recent", recent(fingerprintId));
+        return description;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(recent, null);
+        next = 0;
+        recorded = 0;
+        untracked = 0;
+        fingerprints.clear();
+    }
+
+    private List<SlowQuery> recent(String fingerprintId) {
+        List<SlowQuery> queries = new ArrayList<>();
+        for (int i = 1; i <= recent.length; i++) {
+            SlowQuery query = recent[(next - i + recent.length) % recent.length];
+            if (query != null && (fingerprintId == null || fingerprintId.equals(query.fingerprint()))) {
+                queries.add(query);
+            }
+        }
+        return queries;
+    }
+
+    // =========================================================================
+    // Helpers
+    // =========================================================================
+
+    /**
+     * Innermost application frame outside this package - usually the service method
+     * (repository interfaces are JDK proxies and leave no frame of their own)
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(JDBC_PACKAGE))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName()
+                        + ":" + frame.getLineNumber())
+                .orElse("?"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private List<String> renderBinds(Object[] binds) {
+        if (binds == null) {
+            return List.of();
+        }
+        List<String> rendered = new ArrayList<>(binds.length - 1);
+        for (int i = 1; i < binds.length; i++) {
+            rendered.add(renderBind(binds[i]));
+        }
+        return rendered;
+    }
+
+    private String renderBind(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof CharSequence text) {
+            String string = text.length() > properties.getMaxBindLength()
+                    ? text.subSequence(0, properties.getMaxBindLength()) + "..." : text.toString();
+            return "'" + string + "'";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Temporal
+                || value instanceof Date) {
+            return value.toString();
+        }
+        // Streams, LOBs, arrays - not read here
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1) * 100) / 100.0;
+    }
+
+    /**
+     * One slow statement execution
+     */
+    public record SlowQuery(Instant at, String fingerprint, String sqlId, String sql, List<String> binds,
+                            String caller, long rows, int batchSize, double elapsedMs, String thread) {
+    }
+
+    private static final class Fingerprint {
+
+        private final String id;
+        private final String sql;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private Instant lastSeen;
+        private String lastCaller;
+        private String lastSqlId;
+
+        Fingerprint(String id, String sql) {
+            this.id = id;
+            this.sql = sql;
+        }
+
+        void add(long elapsedNanos, String caller, String sqlId) {
+            count++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastSeen = Instant.now();
+            lastCaller = caller;
+            lastSqlId = sqlId;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("fingerprint", id);
+            description.put("sql", sql);
+            description.put("count", count);
+            description.put("totalMs", millis(totalNanos));
+            description.put("meanMs", millis(totalNanos / count));
+            description.put("maxMs", millis(maxNanos));
+            description.put("lastSeen", lastSeen);
+            description.put("lastCaller", lastCaller);
+            description.put("lastSqlId", lastSqlId);
+            return description;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.entity.wtv.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized SQL text and the ids derived from it
+ *
+ * Two statements share a fingerprint when they differ only in literals,
+ * whitespace or the length of an IN list. The Oracle SQL_ID is of the exact
+ * text the server parses, so it can be fed to DBMS_XPLAN.DISPLAY_CURSOR for
+ * the plan.
+ */
+final class SqlFingerprint {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final String SQL_ID_ALPHABET = "0123456789abcdfghjkmnpqrstuvwxyz";
+
+    private SqlFingerprint() {
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return PARAMETER_LIST.matcher(normalized).replaceAll("(?+)");
+    }
+
+    /**
+     * Short stable id of normalized SQL
+     */
+    static String id(String normalizedSql) {
+        byte[] hash = digest("SHA-1", normalizedSql.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash, 0, 8);
+    }
+
+    /**
+     * Oracle's SQL_ID of a statement: the last 64 bits of MD5(text + NUL) in base 32
+     *
+     * The text is the JDBC SQL as the thin driver sends it, with each ? marker
+     * turned into :1, :2, ... (see oracleBindMarkers).
+     */
+    static String oracleSqlId(String sql) {
+        byte[] text = (oracleBindMarkers(sql) + '\0').getBytes(StandardCharsets.UTF_8);
+        byte[] hash = digest("MD5", text);
+        long value = (littleEndianInt(hash, 8) << 32) | littleEndianInt(hash, 12);
+        char[] sqlId = new char[13];
+        for (int i = sqlId.length - 1; i >= 0; i--) {
+            sqlId[i] = SQL_ID_ALPHABET.charAt((int) (value & 31));
+            value >>>= 5;
+        }
+        return new String(sqlId);
+    }
+
+    /**
+     * Rewrite ? parameter markers to Oracle's positional :n, as the thin driver
+     * does before sending the statement; markers inside string literals, quoted
+     * identifiers and comments are left alone
+     */
+    static String oracleBindMarkers(String sql) {
+        if (sql.indexOf('?') < 0) {
+            return sql;
+        }
+        StringBuilder rewritten = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            int end;
+            if (c == '\'' || c == '"') {
+                // '' inside a literal is two adjacent quoted runs, so it needs no special case
+                end = sql.indexOf(c, i + 1);
+                end = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("--", i)) {
+                end = sql.indexOf('\n', i);
+                end = end < 0 ? sql.length() : end + 1;
+            } else if (sql.startsWith("/*", i)) {
+                end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? sql.length() : end + 2;
+            } else if (c == '?') {
+                rewritten.append(':').append(++parameter);
+                i++;
+                continue;
+            } else {
+                end = i + 1;
+            }
+            rewritten.append(sql, i, end);
+            i = end;
+        }
+        return rewritten.toString();
+    }
+
+    private static long littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFFL)
+                | (bytes[offset + 1] & 0xFFL) << 8
+                | (bytes[offset + 2] & 0xFFL) << 16
+                | (bytes[offset + 3] & 0xFFL) << 24;
+    }
+
+    private static byte[] digest(String algorithm, byte[] input) {
+        try {
+            return MessageDigest.getInstance(algorithm).digest(input);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Rebuild of the calendar model from ENTMONTH
+ */
+@Name("com.entity.wtv.CalendarModelBuild")
+@Label("Calendar Model Build")
+@Category({"WTV", "Calendar"})
+public class CalendarModelBuildEvent extends Event {
+
+    @Label("Model Version")
+    private long modelVersion;
+
+    @Label("Months")
+    private int months;
+
+    public static CalendarModelBuildEvent start() {
+        CalendarModelBuildEvent event = new CalendarModelBuildEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(long modelVersion, int months) {
+        end();
+        if (shouldCommit()) {
+            this.modelVersion = modelVersion;
+            this.months = months;
+            commit();
+        }
+    }
+}
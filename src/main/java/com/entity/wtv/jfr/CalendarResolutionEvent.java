@@ -0,0 +1,42 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Lookup in the calendar model (fiscal year, fiscal month, reporting month of a date)
+ */
+@Name("com.entity.wtv.CalendarResolution")
+@Label("Calendar Resolution")
+@Category({"WTV", "Calendar"})
+@Description("Calendar model lookup; a stale model is rebuilt inside it (Calendar Model Build)")
+public class CalendarResolutionEvent extends Event {
+
+    @Label("Lookup")
+    private String lookup;
+
+    @Label("Key")
+    private String key;
+
+    @Label("Found")
+    private boolean found;
+
+    public static CalendarResolutionEvent start() {
+        CalendarResolutionEvent event = new CalendarResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(String lookup, Object key, boolean found) {
+        end();
+        if (shouldCommit()) {
+            this.lookup = lookup;
+            this.key = String.valueOf(key);
+            this.found = found;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ENTCODE time code lookup through EntcodeCache
+ */
+@Name("com.entity.wtv.CodeLookup")
+@Label("Code Lookup")
+@Category({"WTV", "Service"})
+@StackTrace(false)
+public class CodeLookupEvent extends Event {
+
+    @Label("Code")
+    private String code;
+
+    @Label("Cached")
+    private boolean cached;
+
+    public static CodeLookupEvent start() {
+        CodeLookupEvent event = new CodeLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(String code, boolean cached) {
+        end();
+        if (shouldCommit()) {
+            this.code = code;
+            this.cached = cached;
+            commit();
+        }
+    }
+}
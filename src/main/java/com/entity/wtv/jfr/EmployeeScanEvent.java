@@ -0,0 +1,63 @@
+package com.entity.wtv.jfr;
+
+import com.entity.wtv.dto.FieldSelection;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDate;
+
+/**
+ * One pass over the eligible employees of a group, including each employee's aggregation
+ */
+@Name("com.entity.wtv.EmployeeScan")
+@Label("Employee Scan")
+@Category({"WTV", "Service"})
+@Description("Group summary scan over ENTEMP with the per-employee TIMENON/TIMETIN aggregation")
+public class EmployeeScanEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Assignment Prefix")
+    private String assignmentPrefix;
+
+    @Label("Start Date")
+    private String startDate;
+
+    @Label("End Date")
+    private String endDate;
+
+    @Label("Fields")
+    private String fields;
+
+    @Label("Requested ROIDs")
+    @Description("ROIDs asked for by an incremental refresh, or -1 for a full scan")
+    private int requestedRoids;
+
+    @Label("Employees")
+    private int employees;
+
+    public static EmployeeScanEvent start() {
+        EmployeeScanEvent event = new EmployeeScanEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(String operation, String assignmentPrefix, LocalDate startDate, LocalDate endDate,
+                         FieldSelection fields, int requestedRoids, int employees) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.assignmentPrefix = assignmentPrefix;
+            this.startDate = String.valueOf(startDate);
+            this.endDate = String.valueOf(endDate);
+            this.fields = String.valueOf(fields);
+            this.requestedRoids = requestedRoids;
+            this.employees = employees;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.entity.wtv.jfr;
+
+import com.entity.wtv.config.JfrProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Flight recordings started and dumped on demand through /actuator/jfr
+ *
+ * Recordings use a JDK configuration (default or profile); the WTV events in
+ * this package are enabled in both with their annotated thresholds. Events
+ * that copy the process environment, system properties or command lines are
+ * switched off (see REDACTED_EVENTS), as those carry DB_PASSWORD. Any
+ * recording in the JVM can be listed and dumped, including one started with
+ * -XX:StartFlightRecording, but only recordings started here can be closed.
+ * Finished recordings are kept for download up to wtv.jfr.retained.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JfrRecordings {
+
+    private static final String NAME_PREFIX = "wtv-";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Events in the JDK configurations that record secrets verbatim
+     */
+    private static final List<String> REDACTED_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation",
+            "jdk.SystemProcess");
+
+    private final JfrProperties properties;
+
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> recordings = new ArrayList<>();
+        for (Recording recording : recorder().getRecordings()) {
+            recordings.add(describe(recording));
+        }
+        return recordings;
+    }
+
+    /**
+     * Start a recording that stops by itself after the duration
+     *
+     * @param duration Recording length, or null for wtv.jfr.default-duration
+     * @param settings JDK configuration name, or null for wtv.jfr.settings
+     * @throws IllegalArgumentException if the duration is out of range or the configuration unknown
+     */
+    public synchronized Map<String, Object> start(Duration duration, String settings) {
+        Duration length = duration != null ? duration : properties.getDefaultDuration();
+        if (length.isNegative() || length.isZero() || length.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("Duration must be positive and at most " + properties.getMaxDuration());
+        }
+        String configurationName = settings != null && !settings.isBlank() ? settings : properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(configurationName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR configuration: " + configurationName);
+        }
+
+        Map<String, String> eventSettings = new HashMap<>(configuration.getSettings());
+        for (String event : REDACTED_EVENTS) {
+            eventSettings.put(event + "#enabled", "false");
+        }
+
+        closeFinishedBeyondRetained();
+        Recording recording = new Recording(eventSettings);
+        recording.setName(NAME_PREFIX + LocalDateTime.now().format(NAME_FORMAT));
+        recording.setToDisk(true);
+        recording.setDuration(length);
+        recording.setMaxSize(properties.getMaxSize().toBytes());
+        recording.start();
+        log.info("Started flight recording {} ({}) for {} with {} settings",
+                recording.getId(), recording.getName(), length, configurationName);
+        return describe(recording);
+    }
+
+    /**
+     * Write a recording (what it holds so far, if still running) to a temporary file
+     *
+     * @return The file, which the caller deletes, or empty if there is no such recording
+     */
+    public Optional<Path> dump(long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return Optional.empty();
+        }
+        if (recording.get().getState() == RecordingState.NEW || recording.get().getState() == RecordingState.CLOSED) {
+            throw new IllegalArgumentException("Recording " + id + " is " + recording.get().getState());
+        }
+        try {
+            Path file = Files.createTempFile(NAME_PREFIX + id + "-", ".jfr");
+            recording.get().dump(file);
+            return Optional.of(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stop and discard a recording started through this endpoint
+     *
+     * @return False if there is no such recording
+     * @throws IllegalArgumentException if the recording was started elsewhere
+     */
+    public synchronized boolean close(long id) {
+        Optional<Recording> recording = find(id);
+        if (recording.isEmpty()) {
+            return false;
+        }
+        if (!isOwn(recording.get())) {
+            throw new IllegalArgumentException("Recording " + id + " was not started through /actuator/jfr");
+        }
+        recording.get().close();
+        log.info("Closed flight recording {}", id);
+        return true;
+    }
+
+    private void closeFinishedBeyondRetained() {
+        List<Recording> finished = recorder().getRecordings().stream()
+                .filter(JfrRecordings::isOwn)
+                .filter(r -> r.getState() == RecordingState.STOPPED)
+                .sorted((a, b) -> a.getStopTime().compareTo(b.getStopTime()))
+                .toList();
+        for (int i = 0; i < finished.size() - properties.getRetained() + 1; i++) {
+            finished.get(i).close();
+        }
+    }
+
+    private static Optional<Recording> find(long id) {
+        return recorder().getRecordings().stream().filter(r -> r.getId() == id).findFirst();
+    }
+
+    private static boolean isOwn(Recording recording) {
+        return recording.getName() != null && recording.getName().startsWith(NAME_PREFIX);
+    }
+
+    private static FlightRecorder recorder() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder is not available in this JVM");
+        }
+        return FlightRecorder.getFlightRecorder();
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState());
+        description.put("startTime", recording.getStartTime());
+        description.put("stopTime", recording.getStopTime());
+        description.put("duration", recording.getDuration());
+        description.put("size", recording.getSize());
+        return description;
+    }
+}
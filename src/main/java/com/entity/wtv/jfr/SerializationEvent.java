@@ -0,0 +1,36 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing a controller's response body, from the message converter to the end of the request
+ */
+@Name("com.entity.wtv.Serialization")
+@Label("Response Serialization")
+@Category({"WTV", "Web"})
+@Description("Response body encoding (JSON, CBOR, Smile, CSV) after the handler returned")
+public class SerializationEvent extends Event {
+
+    @Label("URI")
+    private String uri;
+
+    @Label("Media Type")
+    private String mediaType;
+
+    @Label("Status")
+    private int status;
+
+    public void complete(String uri, String mediaType, int status) {
+        end();
+        if (shouldCommit()) {
+            this.uri = uri;
+            this.mediaType = mediaType;
+            this.status = status;
+            commit();
+        }
+    }
+}
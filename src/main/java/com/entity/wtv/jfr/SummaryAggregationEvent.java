@@ -0,0 +1,53 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.time.LocalDate;
+
+/**
+ * Weekly summary aggregation for one employee - one per row, so only slow ones are
+ * recorded by default and without a stack trace
+ */
+@Name("com.entity.wtv.SummaryAggregation")
+@Label("Summary Aggregation")
+@Category({"WTV", "Service"})
+@StackTrace(false)
+@Description("TIMENON/TIMETIN aggregate queries for one employee's weekly summary row")
+@Threshold("1 ms")
+public class SummaryAggregationEvent extends Event {
+
+    @Label("ROID")
+    private long roid;
+
+    @Label("Start Date")
+    private String startDate;
+
+    @Label("End Date")
+    private String endDate;
+
+    @Label("Queries")
+    private int queries;
+
+    public static SummaryAggregationEvent start() {
+        SummaryAggregationEvent event = new SummaryAggregationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(Long roid, LocalDate startDate, LocalDate endDate, int queries) {
+        end();
+        if (shouldCommit()) {
+            this.roid = roid;
+            this.startDate = String.valueOf(startDate);
+            this.endDate = String.valueOf(endDate);
+            this.queries = queries;
+            commit();
+        }
+    }
+}
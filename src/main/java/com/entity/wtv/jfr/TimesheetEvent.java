@@ -0,0 +1,58 @@
+package com.entity.wtv.jfr;
+
+import com.entity.wtv.dto.FieldSelection;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.time.LocalDate;
+
+/**
+ * Building one employee timesheet DTO, from the ENTEMP lookup to the totals
+ */
+@Name("com.entity.wtv.Timesheet")
+@Label("Timesheet Build")
+@Category({"WTV", "Service"})
+@Description("Employee timesheet drill-down; the table phases are Timesheet Table events on the same thread")
+public class TimesheetEvent extends Event {
+
+    @Label("ROID")
+    private long roid;
+
+    @Label("Start Date")
+    private String startDate;
+
+    @Label("End Date")
+    private String endDate;
+
+    @Label("Fields")
+    private String fields;
+
+    @Label("Case Entries")
+    private int caseEntries;
+
+    @Label("Non-Case Entries")
+    private int nonCaseEntries;
+
+    public static TimesheetEvent start() {
+        TimesheetEvent event = new TimesheetEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(Long roid, LocalDate startDate, LocalDate endDate, FieldSelection fields,
+                         int caseEntries, int nonCaseEntries) {
+        end();
+        if (shouldCommit()) {
+            this.roid = roid;
+            this.startDate = String.valueOf(startDate);
+            this.endDate = String.valueOf(endDate);
+            this.fields = String.valueOf(fields);
+            this.caseEntries = caseEntries;
+            this.nonCaseEntries = nonCaseEntries;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.entity.wtv.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Building one table of a timesheet, queries included
+ */
+@Name("com.entity.wtv.TimesheetTable")
+@Label("Timesheet Table")
+@Category({"WTV", "Service"})
+@Description("dailySummary, caseTime or nonCaseTime section of an employee timesheet")
+public class TimesheetTableEvent extends Event {
+
+    @Label("ROID")
+    private long roid;
+
+    @Label("Table")
+    private String table;
+
+    @Label("Rows")
+    private int rows;
+
+    public static TimesheetTableEvent start() {
+        TimesheetTableEvent event = new TimesheetTableEvent();
+        event.begin();
+        return event;
+    }
+
+    public void complete(Long roid, String table, int rows) {
+        end();
+        if (shouldCommit()) {
+            this.roid = roid;
+            this.table = table;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.entity.wtv.jobs;
+
+/**
+ * Scheduled job that must run on one node at a time
+ *
+ * Every bean implementing this is picked up by ClusterJobScheduler. Each
+ * partition holds its own WTV_JOB_LOCK lease, so with partitions() > 1 the
+ * ROID range is split and the partitions run in parallel on whichever nodes
+ * take them. A partition whose node dies mid-run is re-run elsewhere once its
+ * lease expires, so jobs must be safe to repeat.
+ */
+public interface ClusterJob {
+
+    /**
+     * Lease row name (at most 50 characters)
+     */
+    String name();
+
+    /**
+     * Spring cron expression (seconds first), evaluated in database time
+     */
+    String cron();
+
+    /**
+     * Number of ROID-range partitions
+     */
+    default int partitions() {
+        return 1;
+    }
+
+    /**
+     * Run one partition; check context.isCancelled() between units of work
+     */
+    void run(JobContext context) throws Exception;
+}
@@ -0,0 +1,289 @@
+package com.entity.wtv.jobs;
+
+import com.entity.wtv.coherence.CacheInvalidationLog;
+import com.entity.wtv.config.JobSchedulerProperties;
+import com.entity.wtv.entity.JobLock;
+import com.entity.wtv.repository.JobLockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ClusterJob partitions on one node at a time using WTV_JOB_LOCK leases
+ *
+ * Every tick-interval one thread:
+ * - renews the leases of partitions running here; a partition whose lease was
+ *   taken over (this node stalled past lease-duration) is cancelled
+ * - for each due partition, while a runner thread is free, tries to take its
+ *   lease with one conditional UPDATE and starts it on the runner pool
+ *
+ * A new lease row starts with NEXT_RUN at the job's next cron time, so a first
+ * deploy does not fire every job at once. A finished partition frees its lease
+ * and sets NEXT_RUN from the job's cron, so no node picks it up again before then. A node that dies leaves its lease
+ * to expire and another node re-runs the partition. Leases and schedules use
+ * database time, so node clocks do not matter. The node id is the cache
+ * invalidation log's.
+ *
+ * Metrics: wtv.jobs.run{job, status}
+ */
+@Component
+@Slf4j
+public class ClusterJobScheduler {
+
+    static final String SUCCEEDED = "SUCCEEDED";
+    static final String FAILED = "FAILED";
+    static final String LEASE_LOST = "LEASE_LOST";
+
+    private final JobSchedulerProperties properties;
+    private final JobLockRepository repository;
+    private final List<ClusterJob> jobs;
+    private final Map<String, CronExpression> schedules = new LinkedHashMap<>();
+    private final String nodeId;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService ticker;
+    private final ThreadPoolExecutor runner;
+
+    private final Map<String, Running> running = new ConcurrentHashMap<>();
+    private final Map<String, LocalRun> lastLocalRuns = new ConcurrentHashMap<>();
+
+    // Tick thread only
+    private final Set<String> knownRows = new HashSet<>();
+    private boolean failing;
+
+    public ClusterJobScheduler(JobSchedulerProperties properties,
+                               JobLockRepository repository,
+                               List<ClusterJob> jobs,
+                               CacheInvalidationLog invalidationLog,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.jobs = jobs;
+        this.nodeId = invalidationLog.getNodeId();
+        this.meterRegistry = meterRegistry;
+        // Fail at startup rather than at the first tick
+        jobs.forEach(job -> schedules.put(job.name(), CronExpression.parse(job.cron())));
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wtv-jobs-tick");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.runner = new ThreadPoolExecutor(
+                properties.getRunnerThreads(), properties.getRunnerThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "wtv-jobs-run-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.runner.allowCoreThreadTimeOut(true);
+
+        if (properties.isEnabled()) {
+            long tick = properties.getTickInterval().toMillis();
+            ticker.scheduleWithFixedDelay(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Leases are left to expire; another node re-runs the interrupted partitions
+        ticker.shutdownNow();
+        running.values().forEach(r -> r.context().cancel());
+        runner.shutdownNow();
+    }
+
+    // =========================================================================
+    // Leases
+    // =========================================================================
+
+    private void tick() {
+        try {
+            LocalDateTime now = repository.currentTimestamp();
+            LocalDateTime leaseUntil = now.plus(properties.getLeaseDuration());
+
+            for (Running run : running.values()) {
+                JobContext context = run.context();
+                if (repository.renew(context.getJobName(), context.getPartition(), nodeId, leaseUntil) == 0) {
+                    log.warn("Lost lease on {} - another node has taken it over; cancelling", context.key());
+                    context.cancel();
+                    run.future().cancel(true);
+                }
+            }
+
+            for (ClusterJob job : jobs) {
+                for (int partition = 0; partition < job.partitions(); partition++) {
+                    if (running.size() >= properties.getRunnerThreads()) {
+                        return;
+                    }
+                    tryStart(job, partition, now, leaseUntil);
+                }
+            }
+
+            if (failing) {
+                failing = false;
+                log.info("Job lock table reachable again");
+            }
+        } catch (RuntimeException e) {
+            if (!failing) {
+                failing = true;
+                log.warn("Job scheduler tick failed: {}", e.getMessage());
+            } else {
+                log.debug("Job scheduler tick still failing: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void tryStart(ClusterJob job, int partition, LocalDateTime now, LocalDateTime leaseUntil) {
+        String key = job.name() + "#" + partition;
+        if (running.containsKey(key)) {
+            return;
+        }
+        if (!knownRows.contains(key)) {
+            try {
+                repository.createIfMissing(job.name(), partition, schedules.get(job.name()).next(now));
+            } catch (DataIntegrityViolationException e) {
+                // Another node inserted it first
+            }
+            // Only once the row is known to exist - any other failure is retried next tick
+            knownRows.add(key);
+        }
+        if (repository.acquire(job.name(), partition, nodeId, now, leaseUntil) == 0) {
+            return;
+        }
+
+        JobContext context = new JobContext(job.name(), partition, job.partitions(), now);
+        // Registered before it is queued so the next tick renews it even if it has not started
+        FutureTask<Void> task = new FutureTask<>(() -> execute(job, context), null) {
+            @Override
+            protected void done() {
+                // Also covers a task cancelled before it started, which never reaches execute()
+                running.computeIfPresent(key, (k, run) -> run.future() == this ? null : run);
+            }
+        };
+        running.put(key, new Running(context, task));
+        runner.execute(task);
+        log.info("Started {} (partition {}/{}, ROID {}-{}) on {}", job.name(), partition + 1, job.partitions(),
+                context.getRoidRange().fromRoid(), context.getRoidRange().toRoid(), nodeId);
+    }
+
+    private void execute(ClusterJob job, JobContext context) {
+        long started = System.nanoTime();
+        String status = SUCCEEDED;
+        String error = null;
+        try {
+            job.run(context);
+            if (context.isCancelled()) {
+                status = LEASE_LOST;
+            }
+        } catch (InterruptedException e) {
+            status = LEASE_LOST;
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            status = context.isCancelled() ? LEASE_LOST : FAILED;
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            log.warn("Job {} failed: {}", context.key(), error, e);
+        } finally {
+            running.remove(context.key());
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        if (!LEASE_LOST.equals(status)) {
+            status = release(context, status, error);
+        }
+        Timer.builder("wtv.jobs.run")
+                .description("Scheduled job partition runs on this node")
+                .tag("job", context.getJobName())
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsed);
+        lastLocalRuns.put(context.key(), new LocalRun(status, context.getStartedAt(), elapsed.toMillis(), error));
+        log.info("Finished {} with {} in {} ms", context.key(), status, elapsed.toMillis());
+    }
+
+    private String release(JobContext context, String status, String error) {
+        try {
+            LocalDateTime now = repository.currentTimestamp();
+            LocalDateTime nextRun = schedules.get(context.getJobName()).next(now);
+            String storedError = error != null && error.length() > 400 ? error.substring(0, 400) : error;
+            if (repository.release(context.getJobName(), context.getPartition(), nodeId, now, nextRun,
+                    status, storedError) == 0) {
+                log.warn("Lease on {} expired before the run finished - it may run again elsewhere", context.key());
+                return LEASE_LOST;
+            }
+            return status;
+        } catch (RuntimeException e) {
+            // The lease expires on its own and the partition is re-run
+            log.warn("Could not release lease on {}: {}", context.key(), e.getMessage());
+            return status;
+        }
+    }
+
+    // =========================================================================
+    // Status
+    // =========================================================================
+
+    /**
+     * Cluster-wide lease rows plus this node's running partitions and last local runs
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("node", nodeId);
+        status.put("enabled", properties.isEnabled());
+        status.put("running", new ArrayList<>(running.keySet()));
+
+        List<Map<String, Object>> partitions = new ArrayList<>();
+        for (JobLock lock : repository.findAllOrdered()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("job", lock.getJobName());
+            row.put("partition", lock.getPartitionNo());
+            row.put("owner", lock.getOwner());
+            row.put("leaseUntil", lock.getLeaseUntil());
+            row.put("nextRun", lock.getNextRun());
+            row.put("lastOwner", lock.getLastOwner());
+            row.put("lastStatus", lock.getLastStatus());
+            row.put("lastStart", lock.getLastStart());
+            row.put("lastEnd", lock.getLastEnd());
+            if (lock.getLastStart() != null && lock.getLastEnd() != null) {
+                row.put("lastDurationMs", Duration.between(lock.getLastStart(), lock.getLastEnd()).toMillis());
+            }
+            row.put("lastError", lock.getLastError());
+            partitions.add(row);
+        }
+        status.put("partitions", partitions);
+        status.put("localRuns", new LinkedHashMap<>(lastLocalRuns));
+        return status;
+    }
+
+    private record Running(JobContext context, Future<?> future) {
+    }
+
+    /**
+     * Last run of a partition on this node
+     */
+    record LocalRun(String status, LocalDateTime startedAt, long durationMs, String error) {
+    }
+}
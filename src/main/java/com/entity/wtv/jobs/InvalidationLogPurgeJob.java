@@ -0,0 +1,44 @@
+package com.entity.wtv.jobs;
+
+import com.entity.wtv.config.CacheInvalidationProperties;
+import com.entity.wtv.config.JobSchedulerProperties;
+import com.entity.wtv.repository.CacheInvalidationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes WTV_CACHE_INVALIDATION rows every node has long since tailed
+ *
+ * Runs on one node per schedule (wtv.jobs.invalidation-log-purge-cron); does
+ * nothing while the log is disabled, when the table may not exist.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InvalidationLogPurgeJob implements ClusterJob {
+
+    private final JobSchedulerProperties properties;
+    private final CacheInvalidationProperties cacheInvalidationProperties;
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+
+    @Override
+    public String name() {
+        return "invalidation-log-purge";
+    }
+
+    @Override
+    public String cron() {
+        return properties.getInvalidationLogPurgeCron();
+    }
+
+    @Override
+    public void run(JobContext context) {
+        if (!cacheInvalidationProperties.isEnabled()) {
+            return;
+        }
+        int deleted = cacheInvalidationRepository.deleteCreatedBefore(
+                context.getStartedAt().minus(properties.getInvalidationLogRetention()));
+        log.info("Purged {} cache invalidation log rows", deleted);
+    }
+}
@@ -0,0 +1,47 @@
+package com.entity.wtv.jobs;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One leased partition run of a ClusterJob
+ */
+@Getter
+public class JobContext {
+
+    private final String jobName;
+    private final int partition;
+    private final int partitions;
+    private final RoidRange roidRange;
+
+    /**
+     * Database time the lease was taken
+     */
+    private final LocalDateTime startedAt;
+
+    private volatile boolean cancelled;
+
+    JobContext(String jobName, int partition, int partitions, LocalDateTime startedAt) {
+        this.jobName = jobName;
+        this.partition = partition;
+        this.partitions = partitions;
+        this.roidRange = RoidRange.of(partition, partitions);
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * True once the lease was lost or the node is shutting down - stop at the next safe point
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    String key() {
+        return jobName + "#" + partition;
+    }
+}
@@ -0,0 +1,27 @@
+package com.entity.wtv.jobs;
+
+/**
+ * Slice of the WTV assignment range (ROID 21000000 - 36999999) for one job partition
+ *
+ * @param fromRoid First ROID, inclusive
+ * @param toRoid   Last ROID, inclusive
+ */
+public record RoidRange(long fromRoid, long toRoid) {
+
+    static final long FIRST_ROID = 21000000L;
+    static final long LAST_ROID = 36999999L;
+
+    /**
+     * Partition {@code partition} of {@code partitions} equal slices
+     */
+    public static RoidRange of(int partition, int partitions) {
+        long size = LAST_ROID - FIRST_ROID + 1;
+        long from = FIRST_ROID + size * partition / partitions;
+        long to = FIRST_ROID + size * (partition + 1) / partitions - 1;
+        return new RoidRange(from, to);
+    }
+
+    public boolean contains(long roid) {
+        return roid >= fromRoid && roid <= toRoid;
+    }
+}
@@ -0,0 +1,54 @@
+package com.entity.wtv.repository;
+
+import com.entity.wtv.entity.CacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for WTV_CACHE_INVALIDATION
+ *
+ * Primary Key: SEQ
+ */
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    /**
+     * Append an invalidation in the caller's transaction (SEQ and CREATED from the database)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO WTV_CACHE_INVALIDATION (SEQ, REGION, CACHE_KEY, NODE_ID, CREATED)
+        VALUES (WTV_CACHE_INVALIDATION_SEQ.NEXTVAL, :region, :cacheKey, :nodeId, LOCALTIMESTAMP)
+        """, nativeQuery = true)
+    int append(@Param("region") String region,
+               @Param("cacheKey") String cacheKey,
+               @Param("nodeId") String nodeId);
+
+    /**
+     * Rows inserted at or after a time, in sequence order (range scan on WTV_CACHE_INV_CREATED_IX)
+     */
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.created >= :since ORDER BY c.seq")
+    List<CacheInvalidation> findCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Purge rows every node has tailed (range scan on WTV_CACHE_INV_CREATED_IX)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheInvalidation c WHERE c.created < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Database clock, so every node measures the log in the same time
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP FROM DUAL", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+}
@@ -1,6 +1,7 @@
 package com.entity.wtv.repository;
 
 import com.entity.wtv.entity.Ent;
+import com.entity.wtv.repository.projection.CaseTinView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,8 +21,14 @@ public interface EntRepository extends JpaRepository<Ent, Long> {
 
     Optional<Ent> findByTinsid(Long tinsid);
 
-    @Query("SELECT e FROM Ent e WHERE e.tinsid IN :tinsids")
-    List<Ent> findByTinsidIn(@Param("tinsids") List<Long> tinsids);
+    /**
+     * TIN display columns only - avoids hydrating address, risk and hours columns
+     */
+    @Query("""
+        SELECT e.tinsid AS tinsid, e.tin AS tin, e.tintt AS tintt, e.tp AS tp, e.tpctrl AS tpctrl
+        FROM Ent e WHERE e.tinsid IN :tinsids
+        """)
+    List<CaseTinView> findTinViewsByTinsidIn(@Param("tinsids") List<Long> tinsids);
 
     @Query("SELECT e.tin FROM Ent e WHERE e.tinsid = :tinsid")
     Optional<Long> findTinByTinsid(@Param("tinsid") Long tinsid);
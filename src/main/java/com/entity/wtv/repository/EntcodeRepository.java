@@ -2,6 +2,7 @@ package com.entity.wtv.repository;
 
 import com.entity.wtv.entity.Entcode;
 import com.entity.wtv.entity.EntcodeId;
+import com.entity.wtv.repository.projection.CodeFingerprintView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,6 +24,16 @@ import java.util.Optional;
 @Repository
 public interface EntcodeRepository extends JpaRepository<Entcode, EntcodeId> {
 
+    /**
+     * Classification and description columns of every code (change-capture checksums)
+     */
+    @Query("""
+        SELECT e.code AS code, e.type AS type, e.cdname AS cdname, e.active AS active, e.timedef AS timedef
+        FROM Entcode e
+        ORDER BY e.code, e.type
+        """)
+    List<CodeFingerprintView> findFingerprints();
+
     /**
      * Find time code by CODE and TYPE
      */
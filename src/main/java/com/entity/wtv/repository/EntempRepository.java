@@ -1,13 +1,21 @@
 package com.entity.wtv.repository;
 
 import com.entity.wtv.entity.Entemp;
+import com.entity.wtv.repository.projection.EmployeeFingerprintView;
+import com.entity.wtv.repository.projection.EmployeeSummaryView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository for ENTEMP table with CFF (security filter) support
@@ -34,9 +42,13 @@ public interface EntempRepository extends JpaRepository<Entemp, Long> {
     /**
      * Find all active employees matching CFF criteria
      * This replicates the CFF view logic in JPQL
+     *
+     * Returns a read-only projection - the summary only needs ROID, name and tour.
+     * Streamed from an open cursor; the caller must close the stream.
      */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
     @Query("""
-        SELECT e FROM Entemp e 
+        SELECT e.roid AS roid, e.name AS name, e.tour AS tour FROM Entemp e 
         WHERE e.eactive IN ('A', 'Y')
         AND (
             (e.type IN ('M', 'R', 'C', 'P', 'T') AND (e.postype IS NULL OR e.postype NOT IN ('B', 'V')))
@@ -45,7 +57,7 @@ public interface EntempRepository extends JpaRepository<Entemp, Long> {
         AND e.roid BETWEEN 21000000 AND 36999999
         ORDER BY e.roid
         """)
-    List<Entemp> findAllValidForWtv();
+    Stream<EmployeeSummaryView> streamAllValidForWtv();
 
     /**
      * Find employees by ROID range with CFF filtering
@@ -66,9 +78,11 @@ public interface EntempRepository extends JpaRepository<Entemp, Long> {
 
     /**
      * Find employees by assignment number prefix (for search)
+     * Streamed from an open cursor; the caller must close the stream.
      */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
     @Query("""
-        SELECT e FROM Entemp e 
+        SELECT e.roid AS roid, e.name AS name, e.tour AS tour FROM Entemp e 
         WHERE e.eactive IN ('A', 'Y')
         AND (
             (e.type IN ('M', 'R', 'C', 'P', 'T') AND (e.postype IS NULL OR e.postype NOT IN ('B', 'V')))
@@ -77,7 +91,35 @@ public interface EntempRepository extends JpaRepository<Entemp, Long> {
         AND CAST(e.roid AS string) LIKE :assignmentPrefix
         ORDER BY e.roid
         """)
-    List<Entemp> findByAssignmentNumberPrefix(@Param("assignmentPrefix") String assignmentPrefix);
+    Stream<EmployeeSummaryView> streamByAssignmentNumberPrefix(@Param("assignmentPrefix") String assignmentPrefix);
+
+    /**
+     * Eligible employees (CFF criteria) among the given ROIDs, in ROID order
+     */
+    @Query("""
+        SELECT e.roid AS roid, e.name AS name, e.tour AS tour FROM Entemp e 
+        WHERE e.roid IN :roids
+        AND e.eactive IN ('A', 'Y')
+        AND (
+            (e.type IN ('M', 'R', 'C', 'P', 'T') AND (e.postype IS NULL OR e.postype NOT IN ('B', 'V')))
+            OR e.type = 'H'
+        )
+        AND e.roid BETWEEN 21000000 AND 36999999
+        ORDER BY e.roid
+        """)
+    List<EmployeeSummaryView> findValidForWtvByRoidIn(@Param("roids") Collection<Long> roids);
+
+    /**
+     * Summary and eligibility columns for every WTV-range employee (change-capture checksums)
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT e.roid AS roid, e.name AS name, e.tour AS tour, e.type AS type,
+               e.postype AS postype, e.eactive AS eactive
+        FROM Entemp e
+        WHERE e.roid BETWEEN 21000000 AND 36999999
+        """)
+    List<EmployeeFingerprintView> findFingerprintsForWtv();
 
     /**
      * Check if ROID is valid according to CFF criteria
@@ -81,26 +81,6 @@ public interface EntmonthRepository extends JpaRepository<Entmonth, String> {
     @Query("SELECT DISTINCT CAST(SUBSTRING(e.rptmonth, 4, 4) AS integer) FROM Entmonth e ORDER BY 1 DESC")
     List<Integer> findDistinctFiscalYears();
 
-    /**
-     * Find all months for a fiscal year by RPTMONTH pattern
-     * Matches months where RPTMONTH ends with the year (e.g., "%2026")
-     */
-    @Query("SELECT e FROM Entmonth e WHERE e.rptmonth LIKE %:year ORDER BY e.startdt")
-    List<Entmonth> findByFiscalYearPattern(@Param("year") String year);
-
-    /**
-     * Check if fiscal year exists
-     */
-    @Query("SELECT COUNT(e) > 0 FROM Entmonth e WHERE e.rptmonth LIKE %:year")
-    boolean existsByFiscalYear(@Param("year") String year);
-
-    /**
-     * Delete all months for a fiscal year
-     */
-    @Modifying
-    @Query("DELETE FROM Entmonth e WHERE e.rptmonth LIKE %:year")
-    int deleteByFiscalYear(@Param("year") String year);
-
     /**
      * Find months by start date range
      */
@@ -150,13 +130,6 @@ public interface EntmonthRepository extends JpaRepository<Entmonth, String> {
     // CTRS Calendar - Active Status Queries
     // =========================================================================
 
-    /**
-     * Update active status for all months in a fiscal year
-     */
-    @Modifying
-    @Query("UPDATE Entmonth e SET e.active = :status WHERE e.rptmonth LIKE %:year")
-    int updateActiveStatusByFiscalYear(@Param("year") String year, @Param("status") String status);
-
     /**
      * Find only active months for a fiscal year
      */
@@ -195,6 +168,11 @@ public interface EntmonthRepository extends JpaRepository<Entmonth, String> {
     @Query("SELECT e FROM Entmonth e WHERE e.rptmonth IN :rptMonths")
     List<Entmonth> findAllByRptmonthIn(@Param("rptMonths") List<String> rptMonths);
 
+    /**
+     * Check whether any of the given RPTMONTH keys exist (primary key lookup)
+     */
+    boolean existsByRptmonthIn(List<String> rptMonths);
+
     /**
      * Get next available cycle number (max endcyc + 1 across all years)
      */
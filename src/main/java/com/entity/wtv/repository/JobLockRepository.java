@@ -0,0 +1,94 @@
+package com.entity.wtv.repository;
+
+import com.entity.wtv.entity.JobLock;
+import com.entity.wtv.entity.JobLockId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for WTV_JOB_LOCK
+ *
+ * Primary Key: JOB_NAME + PARTITION_NO
+ *
+ * Every lease change is a single conditional UPDATE, so two nodes racing for
+ * the same partition cannot both see one row updated.
+ */
+@Repository
+public interface JobLockRepository extends JpaRepository<JobLock, JobLockId> {
+
+    /**
+     * Create the lease row if missing (a concurrent insert fails on the primary key),
+     * first due at the job's next cron time rather than at once
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO WTV_JOB_LOCK (JOB_NAME, PARTITION_NO, NEXT_RUN)
+        SELECT :jobName, :partitionNo, :nextRun FROM DUAL
+        WHERE NOT EXISTS (SELECT 1 FROM WTV_JOB_LOCK WHERE JOB_NAME = :jobName AND PARTITION_NO = :partitionNo)
+        """, nativeQuery = true)
+    int createIfMissing(@Param("jobName") String jobName, @Param("partitionNo") int partitionNo,
+                        @Param("nextRun") LocalDateTime nextRun);
+
+    /**
+     * Take a free or expired lease on a due partition - 1 if this node now owns it.
+     * A row with no NEXT_RUN (inserted by hand) is due at once
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE JobLock j
+        SET j.owner = :owner, j.leaseUntil = :leaseUntil, j.lastOwner = :owner,
+            j.lastStart = :now, j.lastEnd = null, j.lastStatus = 'RUNNING', j.lastError = null
+        WHERE j.jobName = :jobName AND j.partitionNo = :partitionNo
+        AND (j.owner IS NULL OR j.leaseUntil < :now)
+        AND (j.nextRun IS NULL OR j.nextRun <= :now)
+        """)
+    int acquire(@Param("jobName") String jobName, @Param("partitionNo") int partitionNo,
+                @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Extend a lease this node still owns - 0 if it expired and was taken over
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE JobLock j SET j.leaseUntil = :leaseUntil
+        WHERE j.jobName = :jobName AND j.partitionNo = :partitionNo AND j.owner = :owner
+        """)
+    int renew(@Param("jobName") String jobName, @Param("partitionNo") int partitionNo,
+              @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Free the lease and record the outcome - 0 if the lease was lost meanwhile
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE JobLock j
+        SET j.owner = null, j.leaseUntil = null, j.nextRun = :nextRun,
+            j.lastEnd = :now, j.lastStatus = :status, j.lastError = :error
+        WHERE j.jobName = :jobName AND j.partitionNo = :partitionNo AND j.owner = :owner
+        """)
+    int release(@Param("jobName") String jobName, @Param("partitionNo") int partitionNo,
+                @Param("owner") String owner, @Param("now") LocalDateTime now,
+                @Param("nextRun") LocalDateTime nextRun, @Param("status") String status,
+                @Param("error") String error);
+
+    @Query("SELECT j FROM JobLock j ORDER BY j.jobName, j.partitionNo")
+    List<JobLock> findAllOrdered();
+
+    /**
+     * Database clock, so every node measures leases in the same time
+     */
+    @Query(value = "SELECT LOCALTIMESTAMP FROM DUAL", nativeQuery = true)
+    LocalDateTime currentTimestamp();
+}
@@ -2,14 +2,23 @@ package com.entity.wtv.repository;
 
 import com.entity.wtv.entity.Timenon;
 import com.entity.wtv.entity.TimenonId;
+import com.entity.wtv.repository.projection.NonCaseDayHoursView;
+import com.entity.wtv.repository.projection.RoidDayEntryView;
+import com.entity.wtv.repository.projection.RoidEntryView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository for TIMENON table (Non-Case Time Entries)
@@ -57,18 +66,54 @@ public interface TimenonRepository extends JpaRepository<Timenon, TimenonId> {
     BigDecimal sumOverheadHours(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     /**
-     * Count distinct report days, excluding holidays (750) and non-work days (760)
+     * Distinct report dates, excluding holidays (750) and non-work days (760)
      * These codes are not counted in Employee work hours per business rules.
+     * Used to build the TIMENON day mask for Report Days.
      */
-    @Query("SELECT COUNT(DISTINCT t.rptdt) FROM Timenon t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate AND t.timecode NOT IN ('750', '760')")
-    Integer countDistinctReportDays(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT DISTINCT t.rptdt FROM Timenon t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate AND t.timecode NOT IN ('750', '760')")
+    List<LocalDate> findDistinctReportDates(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
     @Query("SELECT MAX(t.rptdt) FROM Timenon t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate")
     LocalDate findMaxReportDate(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT DISTINCT t.timecode FROM Timenon t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate ORDER BY t.timecode")
-    List<String> findDistinctTimecodes(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    /**
+     * Non-case hours per time code and day in one range read - replaces a SUM query per code per day.
+     * Streamed from an open cursor; the caller must close the stream.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT t.timecode AS timecode, t.rptdt AS rptdt, COALESCE(SUM(t.hours), 0) AS hours FROM Timenon t
+        WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate
+        GROUP BY t.timecode, t.rptdt
+        """)
+    Stream<NonCaseDayHoursView> streamDailyHoursByTimecode(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Employees with entries keyed after the watermark for report dates in the range,
+     * with their latest entry time. Range scan on the ENTRYDT index - cost follows the
+     * number of new entries, not the group size.
+     */
+    @Query("""
+        SELECT t.roid AS roid, MAX(t.entrydt) AS lastEntry FROM Timenon t
+        WHERE t.entrydt > :since AND t.rptdt BETWEEN :startDate AND :endDate
+        GROUP BY t.roid
+        """)
+    List<RoidEntryView> findRoidsEnteredSince(@Param("since") LocalDateTime since, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Entries keyed after the watermark for any report date, per employee and day -
+     * one scan serves every live summary subscription (ENTRYDT index range scan)
+     */
+    @Query("""
+        SELECT t.roid AS roid, t.rptdt AS rptdt, MAX(t.entrydt) AS lastEntry FROM Timenon t
+        WHERE t.entrydt > :since
+        GROUP BY t.roid, t.rptdt
+        """)
+    List<RoidDayEntryView> findEntriesSince(@Param("since") LocalDateTime since);
 
-    @Query("SELECT COALESCE(SUM(t.hours), 0) FROM Timenon t WHERE t.roid = :roid AND t.rptdt = :rptdt AND t.timecode = :timecode")
-    BigDecimal sumHoursForDateAndCode(@Param("roid") Long roid, @Param("rptdt") LocalDate rptdt, @Param("timecode") String timecode);
-}
\ No newline at end of file
+    /**
+     * Latest entry time in the table (index min/max scan)
+     */
+    @Query("SELECT MAX(t.entrydt) FROM Timenon t")
+    LocalDateTime findMaxEntryDate();
+}
@@ -1,14 +1,23 @@
 package com.entity.wtv.repository;
 
 import com.entity.wtv.entity.Timetin;
+import com.entity.wtv.repository.projection.CaseDayHoursView;
+import com.entity.wtv.repository.projection.RoidDayEntryView;
+import com.entity.wtv.repository.projection.RoidEntryView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository for TIMETIN table (Case/TIN Time Entries)
@@ -28,20 +37,50 @@ public interface TimetinRepository extends JpaRepository<Timetin, Long> {
     @Query("SELECT COUNT(DISTINCT t.rptdt) FROM Timetin t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate")
     Integer countDistinctReportDays(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT MAX(t.rptdt) FROM Timetin t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate")
-    LocalDate findMaxReportDate(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    /**
+     * Distinct report dates with case time - used to build the TIMETIN day mask for Report Days
+     */
+    @Query("SELECT DISTINCT t.rptdt FROM Timetin t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate")
+    List<LocalDate> findDistinctReportDates(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT DISTINCT t.timesid FROM Timetin t WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate")
-    List<Long> findDistinctTimesids(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    /**
+     * Case hours per TIMESID and day in one range read - replaces a SUM query per case per day.
+     * Streamed from an open cursor; the caller must close the stream.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT t.timesid AS timesid, t.rptdt AS rptdt, COALESCE(SUM(t.hours), 0) AS hours FROM Timetin t
+        WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate
+        GROUP BY t.timesid, t.rptdt
+        """)
+    Stream<CaseDayHoursView> streamDailyHoursByTimesid(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    @Query("SELECT COALESCE(SUM(t.hours), 0) FROM Timetin t WHERE t.roid = :roid AND t.timesid = :timesid AND t.rptdt = :rptdt")
-    BigDecimal sumHoursForTimesidAndDate(@Param("roid") Long roid, @Param("timesid") Long timesid, @Param("rptdt") LocalDate rptdt);
+    /**
+     * Employees with entries keyed after the watermark for report dates in the range,
+     * with their latest entry time. Range scan on the ENTRYDT index - cost follows the
+     * number of new entries, not the group size.
+     */
+    @Query("""
+        SELECT t.roid AS roid, MAX(t.entrydt) AS lastEntry FROM Timetin t
+        WHERE t.entrydt > :since AND t.rptdt BETWEEN :startDate AND :endDate
+        GROUP BY t.roid
+        """)
+    List<RoidEntryView> findRoidsEnteredSince(@Param("since") LocalDateTime since, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    // Count days in TIMETIN that don't exist in TIMENON (for report days calculation)
+    /**
+     * Entries keyed after the watermark for any report date, per employee and day -
+     * one scan serves every live summary subscription (ENTRYDT index range scan)
+     */
     @Query("""
-        SELECT COUNT(DISTINCT t.rptdt) FROM Timetin t 
-        WHERE t.roid = :roid AND t.rptdt BETWEEN :startDate AND :endDate
-        AND NOT EXISTS (SELECT 1 FROM Timenon n WHERE n.roid = t.roid AND n.rptdt = t.rptdt)
+        SELECT t.roid AS roid, t.rptdt AS rptdt, MAX(t.entrydt) AS lastEntry FROM Timetin t
+        WHERE t.entrydt > :since
+        GROUP BY t.roid, t.rptdt
         """)
-    Integer countUniqueTimetinDays(@Param("roid") Long roid, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<RoidDayEntryView> findEntriesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Latest entry time in the table (index min/max scan)
+     */
+    @Query("SELECT MAX(t.entrydt) FROM Timetin t")
+    LocalDateTime findMaxEntryDate();
 }
@@ -0,0 +1,16 @@
+package com.entity.wtv.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * TIMETIN hours summed per case (TIMESID) and report date
+ */
+public interface CaseDayHoursView {
+
+    Long getTimesid();
+
+    LocalDate getRptdt();
+
+    BigDecimal getHours();
+}
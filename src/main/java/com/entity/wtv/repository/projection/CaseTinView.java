@@ -0,0 +1,33 @@
+package com.entity.wtv.repository.projection;
+
+import com.entity.wtv.entity.Ent;
+
+/**
+ * Read-only ENT columns needed to label case time rows (TIN and taxpayer name)
+ */
+public interface CaseTinView {
+
+    Long getTinsid();
+
+    Long getTin();
+
+    Integer getTintt();
+
+    String getTp();
+
+    String getTpctrl();
+
+    /**
+     * @see Ent#getFormattedTin()
+     */
+    default String getFormattedTin() {
+        return Ent.formatTin(getTin(), getTintt());
+    }
+
+    /**
+     * @see Ent#getTaxpayerName()
+     */
+    default String getTaxpayerName() {
+        return Ent.taxpayerName(getTp(), getTpctrl());
+    }
+}
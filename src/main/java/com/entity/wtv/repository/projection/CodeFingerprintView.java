@@ -0,0 +1,24 @@
+package com.entity.wtv.repository.projection;
+
+/**
+ * ENTCODE columns that affect hour classification or code descriptions
+ *
+ * Compared by checksum between change-capture polls; a code's rows are
+ * digested together in TYPE order.
+ */
+public interface CodeFingerprintView {
+
+    String getCode();
+
+    String getType();
+
+    String getCdname();
+
+    String getActive();
+
+    String getTimedef();
+
+    default String checksum() {
+        return Fingerprints.digest(getType(), getCdname(), getActive(), getTimedef());
+    }
+}
@@ -0,0 +1,26 @@
+package com.entity.wtv.repository.projection;
+
+/**
+ * ENTEMP columns that affect a weekly summary row or WTV eligibility
+ *
+ * Compared by checksum between change-capture polls; ENTEMP has no entry
+ * timestamp and EXTRDT only carries the extract date.
+ */
+public interface EmployeeFingerprintView {
+
+    Long getRoid();
+
+    String getName();
+
+    Integer getTour();
+
+    String getType();
+
+    String getPostype();
+
+    String getEactive();
+
+    default String checksum() {
+        return Fingerprints.digest(getName(), getTour(), getType(), getPostype(), getEactive());
+    }
+}
@@ -0,0 +1,25 @@
+package com.entity.wtv.repository.projection;
+
+import com.entity.wtv.entity.Entemp;
+
+/**
+ * Read-only ENTEMP columns needed by the group weekly summary
+ *
+ * Selected as scalars, so rows are never managed by the persistence context
+ * and only three of the 39 ENTEMP columns come over JDBC.
+ */
+public interface EmployeeSummaryView {
+
+    Long getRoid();
+
+    String getName();
+
+    Integer getTour();
+
+    /**
+     * @see Entemp#getTourOfDutyType()
+     */
+    default String getTourOfDutyType() {
+        return Entemp.tourOfDutyType(getTour());
+    }
+}
@@ -0,0 +1,30 @@
+package com.entity.wtv.repository.projection;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 128-bit digests for the change-capture fingerprint views
+ *
+ * Values are joined in order with a unit separator (null kept distinct from
+ * any string) and hashed with MD5, so swapping two columns or two rows, or
+ * offsetting edits, changes the digest - unlike a sum of int hash codes.
+ * Used for change detection only, not for security.
+ */
+public final class Fingerprints {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final char NULL = '\u0000';
+
+    private Fingerprints() {
+    }
+
+    public static String digest(Object... values) {
+        StringBuilder text = new StringBuilder(64);
+        for (Object value : values) {
+            text.append(value == null ? String.valueOf(NULL) : value.toString()).append(SEPARATOR);
+        }
+        return DigestUtils.md5DigestAsHex(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
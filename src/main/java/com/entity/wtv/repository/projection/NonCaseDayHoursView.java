@@ -0,0 +1,16 @@
+package com.entity.wtv.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * TIMENON hours summed per time code and report date
+ */
+public interface NonCaseDayHoursView {
+
+    String getTimecode();
+
+    LocalDate getRptdt();
+
+    BigDecimal getHours();
+}
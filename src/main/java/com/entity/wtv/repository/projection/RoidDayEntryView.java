@@ -0,0 +1,16 @@
+package com.entity.wtv.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Latest entry time per employee and report date after a watermark
+ */
+public interface RoidDayEntryView {
+
+    Long getRoid();
+
+    LocalDate getRptdt();
+
+    LocalDateTime getLastEntry();
+}
@@ -0,0 +1,13 @@
+package com.entity.wtv.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * An employee with time entered after a watermark, and the latest such entry
+ */
+public interface RoidEntryView {
+
+    Long getRoid();
+
+    LocalDateTime getLastEntry();
+}
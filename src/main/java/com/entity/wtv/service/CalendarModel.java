@@ -0,0 +1,75 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.dto.FiscalMonthDTO;
+import com.entity.wtv.dto.FiscalYearDTO;
+import com.entity.wtv.dto.ReportingMonthDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the ENTMONTH calendar with every label pre-rendered
+ *
+ * Built once per calendar version by CalendarModelProvider. Reporting-month,
+ * pay-period and fiscal-year reads are answered from here without touching
+ * the database or formatting anything. The DTOs are shared between requests
+ * and must not be modified.
+ */
+public final class CalendarModel {
+
+    private final long version;
+    private final List<ReportingMonthDTO> reportingMonths;
+    private final Map<String, ReportingMonthDTO> reportingMonthsByKey;
+    private final Map<String, FiscalMonthDTO> fiscalMonthsByKey;
+    private final Map<Integer, FiscalYearDTO> fiscalYears;
+    private final NavigableMap<LocalDate, String> rptmonthsByStartDate;
+
+    CalendarModel(long version,
+                  List<ReportingMonthDTO> reportingMonths,
+                  Map<String, ReportingMonthDTO> reportingMonthsByKey,
+                  Map<String, FiscalMonthDTO> fiscalMonthsByKey,
+                  Map<Integer, FiscalYearDTO> fiscalYears,
+                  NavigableMap<LocalDate, String> rptmonthsByStartDate) {
+        this.version = version;
+        this.reportingMonths = reportingMonths;
+        this.reportingMonthsByKey = reportingMonthsByKey;
+        this.fiscalMonthsByKey = fiscalMonthsByKey;
+        this.fiscalYears = fiscalYears;
+        this.rptmonthsByStartDate = rptmonthsByStartDate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * All reporting months, latest start date first
+     */
+    public List<ReportingMonthDTO> getReportingMonths() {
+        return reportingMonths;
+    }
+
+    public Optional<ReportingMonthDTO> findReportingMonth(String rptmonth) {
+        return Optional.ofNullable(reportingMonthsByKey.get(rptmonth));
+    }
+
+    public Optional<FiscalMonthDTO> findFiscalMonth(String rptmonth) {
+        return Optional.ofNullable(fiscalMonthsByKey.get(rptmonth));
+    }
+
+    public Optional<FiscalYearDTO> findFiscalYear(Integer year) {
+        return Optional.ofNullable(fiscalYears.get(year));
+    }
+
+    /**
+     * Reporting month of the latest period starting on or before a date
+     * (same rule as EntmonthRepository.findRptmonthByDate)
+     */
+    public Optional<String> findRptmonthByDate(LocalDate date) {
+        Map.Entry<LocalDate, String> entry = rptmonthsByStartDate.floorEntry(date);
+        return entry != null ? Optional.of(entry.getValue()) : Optional.empty();
+    }
+}
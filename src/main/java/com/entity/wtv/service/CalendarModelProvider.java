@@ -0,0 +1,137 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.coherence.CacheInvalidationHandler;
+import com.entity.wtv.coherence.CacheInvalidationLog;
+import com.entity.wtv.dto.FiscalMonthDTO;
+import com.entity.wtv.dto.FiscalYearDTO;
+import com.entity.wtv.dto.ReportingMonthDTO;
+import com.entity.wtv.entity.Entmonth;
+import com.entity.wtv.jfr.CalendarModelBuildEvent;
+import com.entity.wtv.repository.EntmonthRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the current CalendarModel and rebuilds it when ENTMONTH changes
+ *
+ * CtrsCalendarService calls invalidate() on every write. The version is
+ * bumped immediately and again when the writing transaction completes, so a
+ * model rebuilt from pre-commit data is always replaced on the next read.
+ * The write is also recorded in the cache invalidation log, and the other
+ * nodes bump their version when they tail it.
+ * ENTMONTH holds 12 rows per fiscal year, so a rebuild is a single small scan.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarModelProvider implements CacheInvalidationHandler {
+
+    private final EntmonthRepository entmonthRepository;
+    private final CalendarRenderer renderer;
+    private final CacheInvalidationLog invalidationLog;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile CalendarModel model;
+
+    /**
+     * Get the model for the current calendar version, rebuilding it if stale
+     */
+    public CalendarModel current() {
+        CalendarModel current = model;
+        if (current != null && current.getVersion() == version.get()) {
+            return current;
+        }
+        synchronized (this) {
+            long currentVersion = version.get();
+            current = model;
+            if (current == null || current.getVersion() != currentVersion) {
+                current = build(currentVersion);
+                model = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Current calendar version - changes whenever ENTMONTH is written
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Mark the model stale after an ENTMONTH write
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        invalidationLog.record(CacheInvalidationLog.CALENDAR, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    @Override
+    public String region() {
+        return CacheInvalidationLog.CALENDAR;
+    }
+
+    /**
+     * ENTMONTH was written on another node - rebuild on the next read
+     */
+    @Override
+    public void invalidate(String cacheKey) {
+        version.incrementAndGet();
+    }
+
+    private CalendarModel build(long modelVersion) {
+        CalendarModelBuildEvent event = CalendarModelBuildEvent.start();
+        List<Entmonth> months = entmonthRepository.findAllOrderByStartDateDesc();
+
+        List<ReportingMonthDTO> reportingMonths = new ArrayList<>(months.size());
+        Map<String, ReportingMonthDTO> reportingMonthsByKey = new HashMap<>();
+        Map<String, FiscalMonthDTO> fiscalMonthsByKey = new HashMap<>();
+        NavigableMap<LocalDate, String> rptmonthsByStartDate = new TreeMap<>();
+
+        for (Entmonth month : months) {
+            ReportingMonthDTO reportingMonth = renderer.toReportingMonthDTO(month);
+            reportingMonths.add(reportingMonth);
+            reportingMonthsByKey.put(month.getRptmonth(), reportingMonth);
+            fiscalMonthsByKey.put(month.getRptmonth(), renderer.toFiscalMonthDTO(month));
+            if (month.getStartdt() != null) {
+                // Descending scan - keep the first (latest) month for a duplicated start date
+                rptmonthsByStartDate.putIfAbsent(month.getStartdt(), month.getRptmonth());
+            }
+        }
+
+        Map<Integer, FiscalYearDTO> fiscalYears = new HashMap<>();
+        months.stream()
+                .filter(m -> m.getFiscalYear() != null)
+                .collect(Collectors.groupingBy(Entmonth::getFiscalYear))
+                .forEach((year, yearMonths) -> {
+                    yearMonths.sort(Comparator.comparingInt(Entmonth::getFiscalMonthOrder));
+                    fiscalYears.put(year, renderer.toFiscalYearDTO(year, yearMonths));
+                });
+
+        log.info("Built calendar model version {} from {} months", modelVersion, months.size());
+        event.complete(modelVersion, months.size());
+        return new CalendarModel(modelVersion,
+                Collections.unmodifiableList(reportingMonths),
+                reportingMonthsByKey,
+                fiscalMonthsByKey,
+                fiscalYears,
+                rptmonthsByStartDate);
+    }
+}
@@ -0,0 +1,291 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.dto.FiscalMonthDTO;
+import com.entity.wtv.dto.FiscalYearDTO;
+import com.entity.wtv.dto.ReportingMonthDTO;
+import com.entity.wtv.entity.Entmonth;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Renders ENTMONTH rows into the WTV and CTRS calendar DTOs
+ *
+ * Shared by CalendarModelProvider (which renders every month once per
+ * ENTMONTH version) and CtrsCalendarService (which renders months it has
+ * just written).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarRenderer {
+
+    private static final DateTimeFormatter MONTH_YEAR = DateTimeFormatter.ofPattern("MMMM yyyy");
+    private static final DateTimeFormatter PAY_PERIOD_DATE = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final DateTimeFormatter MONTH_DAY_SHORT = DateTimeFormatter.ofPattern("MMM d");
+    private static final DateTimeFormatter MONTH_DAY_LONG = DateTimeFormatter.ofPattern("MMMM d");
+
+    private final ObjectMapper objectMapper;
+
+    // =========================================================================
+    // WTV Reporting Months
+    // =========================================================================
+
+    /**
+     * Convert Entmonth entity to ReportingMonthDTO with its weeks
+     */
+    ReportingMonthDTO toReportingMonthDTO(Entmonth month) {
+        ReportingMonthDTO dto = ReportingMonthDTO.builder()
+                .id(month.getRptmonth())
+                .rptmonth(month.getRptmonth())
+                .displayLabel(formatMonthDisplay(month))
+                .startDate(month.getStartdt())
+                .endDate(month.getEnddt())
+                .weekCount(month.getWeeks())
+                .build();
+
+        dto.setWeeks(generateWeeksForMonth(month));
+        return dto;
+    }
+
+    private List<ReportingMonthDTO.WeekDTO> generateWeeksForMonth(Entmonth month) {
+        List<ReportingMonthDTO.WeekDTO> weeks = new ArrayList<>();
+        
+        if (month.getStartdt() == null || month.getWeeks() == null) {
+            return weeks;
+        }
+
+        LocalDate weekStart = month.getStartdt();
+        int numWeeks = month.getWeeks() != null ? month.getWeeks() : 4;
+        int postingCycle = month.getStartcyc() != null ? month.getStartcyc() : 1;
+
+        for (int i = 1; i <= numWeeks; i++) {
+            LocalDate weekEnd = weekStart.plusDays(6);
+            
+            weeks.add(ReportingMonthDTO.WeekDTO.builder()
+                    .weekNumber(i)
+                    .postingCycle(postingCycle++)
+                    .startDate(weekStart)
+                    .endDate(weekEnd)
+                    .displayLabel(formatPayPeriodRange(weekStart, weekEnd))
+                    .build());
+            
+            weekStart = weekStart.plusDays(7);
+        }
+
+        return weeks;
+    }
+
+    private String formatMonthDisplay(Entmonth month) {
+        if (month.getStartdt() == null) return month.getRptmonth();
+        return formatMonthYear(month.getStartdt());
+    }
+
+    /**
+     * Format month and year for display (e.g., "January 2025")
+     */
+    static String formatMonthYear(LocalDate date) {
+        return date.format(MONTH_YEAR);
+    }
+
+    /**
+     * Format pay period range for display (e.g., "01/05/2025 - 01/11/2025")
+     */
+    static String formatPayPeriodRange(LocalDate start, LocalDate end) {
+        return start.format(PAY_PERIOD_DATE) + " - " + end.format(PAY_PERIOD_DATE);
+    }
+
+    // =========================================================================
+    // CTRS Fiscal Years
+    // =========================================================================
+
+    /**
+     * Build FiscalYearDTO from months
+     */
+    FiscalYearDTO toFiscalYearDTO(Integer year, List<Entmonth> months) {
+        List<FiscalMonthDTO> monthDTOs = months.stream()
+            .map(this::toFiscalMonthDTO)
+            .collect(Collectors.toList());
+
+        int totalWeeks = months.stream()
+            .mapToInt(m -> m.getWeeks() != null ? m.getWeeks() : 0)
+            .sum();
+
+        int totalWorkdays = months.stream()
+            .mapToInt(m -> m.getWorkdays() != null ? m.getWorkdays() : 0)
+            .sum();
+
+        int totalHolidays = months.stream()
+            .mapToInt(m -> m.getHolidays() != null ? m.getHolidays() : 0)
+            .sum();
+
+        int totalHours = months.stream()
+            .mapToInt(m -> m.getHours() != null ? m.getHours() : 0)
+            .sum();
+
+        boolean isActive = months.stream().anyMatch(Entmonth::isActive);
+        String status = isActive ? "Active" : "Inactive";
+
+        return FiscalYearDTO.builder()
+            .fiscalYear(year)
+            .displayLabel(String.valueOf(year))
+            .totalWeeks(totalWeeks)
+            .totalWorkdays(totalWorkdays)
+            .totalHolidays(totalHolidays)
+            .totalHours(totalHours)
+            .months(monthDTOs)
+            .active(isActive)
+            .status(status)
+            .build();
+    }
+
+    /**
+     * Convert Entmonth entity to FiscalMonthDTO
+     */
+    FiscalMonthDTO toFiscalMonthDTO(Entmonth entity) {
+        List<FiscalMonthDTO.WeekCycleDTO> weeks = generateWeekCycles(entity);
+        String dateRange = formatDateRange(entity.getStartdt(), entity.getEnddt());
+
+        return FiscalMonthDTO.builder()
+            .rptMonth(entity.getRptmonth())
+            .monthName(entity.getMonthName())
+            .postingCycles(entity.getWeeks())
+            .startDate(entity.getStartdt())
+            .endDate(entity.getEnddt())
+            .dateRange(dateRange)
+            .workdays(entity.getWorkdays())
+            .holidays(entity.getHolidays() != null ? entity.getHolidays() : 0)
+            .hours(entity.getHours() != null ? entity.getHours() : entity.getWorkdays())
+            .startCycle(entity.getStartcyc())
+            .endCycle(entity.getEndcyc())
+            .weeks(weeks)
+            .rptNational(entity.getRptnational())
+            .expandable(true)
+            .build();
+    }
+
+    /**
+     * Generate individual week cycles for a month
+     */
+    private List<FiscalMonthDTO.WeekCycleDTO> generateWeekCycles(Entmonth month) {
+        List<FiscalMonthDTO.WeekCycleDTO> weeks = new ArrayList<>();
+        
+        // First try to use stored week data
+        List<Map<String, Object>> storedWeekData = parseWeekData(month.getWeekData());
+        
+        if (!storedWeekData.isEmpty()) {
+            int weekNum = 1;
+            for (Map<String, Object> weekMap : storedWeekData) {
+                weeks.add(FiscalMonthDTO.WeekCycleDTO.builder()
+                    .cycleNumber((Integer) weekMap.get("cycle"))
+                    .weekNumber(weekNum++)
+                    .startDate(parseDate(weekMap.get("startDate")))
+                    .endDate(parseDate(weekMap.get("endDate")))
+                    .dateRange((String) weekMap.get("dateRange"))
+                    .workdays((Integer) weekMap.getOrDefault("workdays", 5))
+                    .holidays((Integer) weekMap.getOrDefault("holidays", 0))
+                    .hours((Integer) weekMap.getOrDefault("hours", 40))
+                    .build());
+            }
+            return weeks;
+        }
+
+        // Fall back to generating from month data
+        if (month.getStartdt() == null || month.getStartcyc() == null || month.getWeeks() == null) {
+            return weeks;
+        }
+
+        LocalDate weekStart = month.getStartdt();
+        int cycleNum = month.getStartcyc();
+
+        for (int i = 0; i < month.getWeeks(); i++) {
+            LocalDate weekEnd = weekStart.plusDays(6);
+            
+            weeks.add(FiscalMonthDTO.WeekCycleDTO.builder()
+                .cycleNumber(cycleNum)
+                .weekNumber(i + 1)
+                .startDate(weekStart)
+                .endDate(weekEnd)
+                .dateRange(formatWeekDateRange(weekStart, weekEnd))
+                .workdays(5)
+                .holidays(0)
+                .hours(5)  // Default: 5 hours display (matches UI screenshot)
+                .build());
+
+            weekStart = weekEnd.plusDays(1);
+            cycleNum++;
+        }
+
+        return weeks;
+    }
+
+    // =========================================================================
+    // Week Data JSON / Formatting
+    // =========================================================================
+
+    /**
+     * Parse week data JSON
+     */
+    List<Map<String, Object>> parseWeekData(String weekDataJson) {
+        if (weekDataJson == null || weekDataJson.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(weekDataJson, new TypeReference<List<Map<String, Object>>>() {});
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to parse week data JSON: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Serialize week data to JSON
+     */
+    String serializeWeekData(List<Map<String, Object>> weeks) {
+        try {
+            return objectMapper.writeValueAsString(weeks);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize week data: {}", e.getMessage());
+            return "[]";
+        }
+    }
+
+    /**
+     * Parse date from stored format
+     */
+    private LocalDate parseDate(Object dateObj) {
+        if (dateObj == null) return null;
+        if (dateObj instanceof LocalDate) return (LocalDate) dateObj;
+        try {
+            return LocalDate.parse(dateObj.toString());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Format date range for display (e.g., "Sep 29 - Oct 26")
+     */
+    private String formatDateRange(LocalDate start, LocalDate end) {
+        if (start == null || end == null) return "";
+        return start.format(MONTH_DAY_SHORT) + " - " + end.format(MONTH_DAY_SHORT);
+    }
+
+    /**
+     * Format week date range for display (e.g., "September 29 - October 3")
+     */
+    String formatWeekDateRange(LocalDate start, LocalDate end) {
+        if (start == null || end == null) return "";
+        return start.format(MONTH_DAY_LONG) + " - " + end.format(MONTH_DAY_LONG);
+    }
+}
@@ -0,0 +1,65 @@
+package com.entity.wtv.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque ENTRYDT watermark handed to clients by /summaries/changes and the
+ * summary event stream (as the SSE event id)
+ */
+public final class ChangeToken {
+
+    /**
+     * ENTRYDT is stamped before the entry commits; change scans start this far
+     * before the watermark so late commits are not missed. An entry that commits
+     * more than this after its stamp is never reported as a change - only a full
+     * fetch (no token) picks it up.
+     */
+    public static final Duration COMMIT_LAG = Duration.ofMinutes(2);
+
+    /**
+     * Watermark used when no entry has an ENTRYDT yet
+     */
+    static final LocalDateTime NO_ENTRIES = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private ChangeToken() {
+    }
+
+    public static String encode(LocalDateTime watermark) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(watermark.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Token for the watermark, or null when there is none yet (null or the
+     * no-entries sentinel) - for event ids, where a missing id keeps the
+     * client's previous one
+     */
+    public static String encodeIfKnown(LocalDateTime watermark) {
+        return watermark == null || watermark.equals(NO_ENTRIES) ? null : encode(watermark);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token cannot be read
+     */
+    public static LocalDateTime decode(String token) {
+        try {
+            return LocalDateTime.parse(new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+    }
+
+    /**
+     * Later of two watermarks, either of which may be null
+     */
+    public static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b != null ? b : NO_ENTRIES;
+        }
+        return b == null || a.isAfter(b) ? a : b;
+    }
+}
@@ -1,12 +1,12 @@
 package com.entity.wtv.service;
 
+import com.entity.wtv.bulkhead.Workload;
+import com.entity.wtv.bulkhead.WorkloadClass;
 import com.entity.wtv.dto.*;
 import com.entity.wtv.entity.Entmonth;
 import com.entity.wtv.exception.ResourceNotFoundException;
+import com.entity.wtv.jfr.CalendarResolutionEvent;
 import com.entity.wtv.repository.EntmonthRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -14,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -23,15 +22,21 @@ import java.util.stream.Collectors;
  * Service for CTRS Calendar functionality
  * 
  * Manages fiscal years (October - September) and their monthly periods
+ *
+ * Reads are served from the pre-rendered CalendarModel. Writes resolve a
+ * fiscal year as its 12 exact RPTMONTH keys with one primary-key IN lookup
+ * and invalidate the model.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Workload(WorkloadClass.INTERACTIVE)
 public class CtrsCalendarService {
 
     private final EntmonthRepository entmonthRepository;
-    private final ObjectMapper objectMapper;
+    private final CalendarRenderer renderer;
+    private final CalendarModelProvider calendarModelProvider;
 
     // Fiscal year month order (October to September)
     private static final String[] FISCAL_MONTH_ORDER = {
@@ -66,14 +71,12 @@ public class CtrsCalendarService {
      */
     public FiscalYearDTO getFiscalYear(Integer year) {
         log.info("Getting fiscal year: {}", year);
-        
-        List<Entmonth> months = getFiscalYearMonths(year);
-        
-        if (months.isEmpty()) {
-            throw new ResourceNotFoundException("Fiscal year " + year + " not found");
-        }
 
-        return buildFiscalYearDTO(year, months);
+        CalendarResolutionEvent resolution = CalendarResolutionEvent.start();
+        Optional<FiscalYearDTO> fiscalYear = calendarModelProvider.current().findFiscalYear(year);
+        resolution.complete("fiscalYear", year, fiscalYear.isPresent());
+        return fiscalYear
+            .orElseThrow(() -> new ResourceNotFoundException("Fiscal year " + year + " not found"));
     }
 
     /**
@@ -81,11 +84,12 @@ public class CtrsCalendarService {
      */
     public FiscalMonthDTO getFiscalMonth(String rptMonth) {
         log.info("Getting fiscal month: {}", rptMonth);
-        
-        Entmonth month = entmonthRepository.findByRptmonth(rptMonth.toUpperCase())
+
+        CalendarResolutionEvent resolution = CalendarResolutionEvent.start();
+        Optional<FiscalMonthDTO> fiscalMonth = calendarModelProvider.current().findFiscalMonth(rptMonth.toUpperCase());
+        resolution.complete("fiscalMonth", rptMonth, fiscalMonth.isPresent());
+        return fiscalMonth
             .orElseThrow(() -> new ResourceNotFoundException("Month " + rptMonth + " not found"));
-        
-        return toFiscalMonthDTO(month);
     }
 
     // =========================================================================
@@ -100,6 +104,7 @@ public class CtrsCalendarService {
      * - Copy from previous year
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public FiscalYearDTO createFiscalYear(CreateFiscalYearRequest request) {
         log.info("Creating fiscal year: {}, empty={}, copyFromPrevious={}", 
                 request.getFiscalYear(), request.getEmpty(), request.getCopyFromPrevious());
@@ -125,11 +130,12 @@ public class CtrsCalendarService {
             generatedMonths = createAutoGeneratedFiscalYear(year, request.getStartDate());
         }
 
-        // Save all months
+        // Save all months - new entities insert without a pre-select, batched by JDBC
         entmonthRepository.saveAll(generatedMonths);
         log.info("Created {} months for fiscal year {}", generatedMonths.size(), year);
+        calendarModelProvider.invalidate();
 
-        return getFiscalYear(year);
+        return renderer.toFiscalYearDTO(year, generatedMonths);
     }
 
     /**
@@ -269,12 +275,26 @@ public class CtrsCalendarService {
      * Update a single fiscal month
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public FiscalMonthDTO updateFiscalMonth(String rptMonth, UpdateFiscalMonthRequest request) {
         log.info("Updating fiscal month: {}", rptMonth);
         
         Entmonth month = entmonthRepository.findByRptmonth(rptMonth.toUpperCase())
             .orElseThrow(() -> new ResourceNotFoundException("Month " + rptMonth + " not found"));
 
+        applyMonthUpdate(month, request);
+
+        entmonthRepository.save(month);
+        log.info("Updated month: {}", rptMonth);
+        calendarModelProvider.invalidate();
+
+        return renderer.toFiscalMonthDTO(month);
+    }
+
+    /**
+     * Apply the provided month-level and week-level fields to a month
+     */
+    private void applyMonthUpdate(Entmonth month, UpdateFiscalMonthRequest request) {
         // Update month-level fields if provided
         if (request.getStartDate() != null) {
             month.setStartdt(request.getStartDate());
@@ -305,18 +325,13 @@ public class CtrsCalendarService {
         if (request.getWeekUpdates() != null && !request.getWeekUpdates().isEmpty()) {
             updateWeekData(month, request.getWeekUpdates());
         }
-
-        entmonthRepository.save(month);
-        log.info("Updated month: {}", rptMonth);
-
-        return toFiscalMonthDTO(month);
     }
 
     /**
      * Update week-level data within a month
      */
     private void updateWeekData(Entmonth month, List<UpdateFiscalMonthRequest.WeekUpdateDTO> weekUpdates) {
-        List<Map<String, Object>> existingWeeks = parseWeekData(month.getWeekData());
+        List<Map<String, Object>> existingWeeks = renderer.parseWeekData(month.getWeekData());
         
         for (UpdateFiscalMonthRequest.WeekUpdateDTO update : weekUpdates) {
             // Find the week to update
@@ -346,61 +361,94 @@ public class CtrsCalendarService {
         month.setWorkdays(totalWorkdays);
         month.setHolidays(totalHolidays);
         month.setHours(totalHours);
-        month.setWeekData(serializeWeekData(existingWeeks));
+        month.setWeekData(renderer.serializeWeekData(existingWeeks));
     }
 
     /**
      * Bulk update all months in a fiscal year
+     *
+     * Loads the year's months and any other targeted months in one query,
+     * applies the updates in memory (flushed as batched UPDATEs on commit)
+     * and builds the response from the same entities.
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public FiscalYearDTO updateFiscalYear(Integer year, List<UpdateFiscalMonthRequest> monthUpdates) {
         log.info("Bulk updating fiscal year: {} with {} month updates", year, monthUpdates.size());
-        
+
+        Set<String> rptMonths = new LinkedHashSet<>(fiscalYearRptMonths(year));
+        monthUpdates.stream()
+            .map(UpdateFiscalMonthRequest::getRptMonth)
+            .filter(Objects::nonNull)
+            .map(String::toUpperCase)
+            .forEach(rptMonths::add);
+
+        Map<String, Entmonth> monthsByKey = entmonthRepository.findAllByRptmonthIn(new ArrayList<>(rptMonths)).stream()
+            .collect(Collectors.toMap(Entmonth::getRptmonth, m -> m));
+
         for (UpdateFiscalMonthRequest update : monthUpdates) {
             if (update.getRptMonth() != null) {
-                updateFiscalMonth(update.getRptMonth(), update);
+                Entmonth month = monthsByKey.get(update.getRptMonth().toUpperCase());
+                if (month == null) {
+                    throw new ResourceNotFoundException("Month " + update.getRptMonth() + " not found");
+                }
+                applyMonthUpdate(month, update);
             }
         }
+        calendarModelProvider.invalidate();
+
+        List<Entmonth> yearMonths = monthsByKey.values().stream()
+            .filter(m -> year.equals(m.getFiscalYear()))
+            .sorted(Comparator.comparingInt(Entmonth::getFiscalMonthOrder))
+            .collect(Collectors.toList());
+
+        if (yearMonths.isEmpty()) {
+            throw new ResourceNotFoundException("Fiscal year " + year + " not found");
+        }
 
-        return getFiscalYear(year);
+        return renderer.toFiscalYearDTO(year, yearMonths);
     }
 
     /**
      * Mark fiscal year as inactive
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public FiscalYearDTO markFiscalYearInactive(Integer year) {
         log.info("Marking fiscal year {} as inactive", year);
         
-        String yearStr = String.valueOf(year);
-        
-        if (!existsFiscalYear(year)) {
+        List<Entmonth> months = getFiscalYearMonths(year);
+
+        if (months.isEmpty()) {
             throw new ResourceNotFoundException("Fiscal year " + year + " not found");
         }
 
-        int updated = entmonthRepository.updateActiveStatusByFiscalYear(yearStr, "N");
-        log.info("Marked {} months as inactive for fiscal year {}", updated, year);
+        months.forEach(m -> m.setActiveStatus(false));
+        log.info("Marked {} months as inactive for fiscal year {}", months.size(), year);
+        calendarModelProvider.invalidate();
 
-        return getFiscalYear(year);
+        return renderer.toFiscalYearDTO(year, months);
     }
 
     /**
      * Mark fiscal year as active
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public FiscalYearDTO markFiscalYearActive(Integer year) {
         log.info("Marking fiscal year {} as active", year);
         
-        String yearStr = String.valueOf(year);
-        
-        if (!existsFiscalYear(year)) {
+        List<Entmonth> months = getFiscalYearMonths(year);
+
+        if (months.isEmpty()) {
             throw new ResourceNotFoundException("Fiscal year " + year + " not found");
         }
 
-        int updated = entmonthRepository.updateActiveStatusByFiscalYear(yearStr, "Y");
-        log.info("Marked {} months as active for fiscal year {}", updated, year);
+        months.forEach(m -> m.setActiveStatus(true));
+        log.info("Marked {} months as active for fiscal year {}", months.size(), year);
+        calendarModelProvider.invalidate();
 
-        return getFiscalYear(year);
+        return renderer.toFiscalYearDTO(year, months);
     }
 
     // =========================================================================
@@ -411,19 +459,21 @@ public class CtrsCalendarService {
      * Delete an entire fiscal year
      */
     @Transactional
+    @Workload(WorkloadClass.CALENDAR_WRITE)
     public void deleteFiscalYear(Integer year) {
         log.info("Deleting fiscal year: {}", year);
         
-        String yearStr = String.valueOf(year);
-        
-        if (!existsFiscalYear(year)) {
+        List<Entmonth> months = getFiscalYearMonths(year);
+
+        if (months.isEmpty()) {
             throw new ResourceNotFoundException("Fiscal year " + year + " not found");
         }
 
         // TODO: Add check for existing time entries before deleting
         
-        int deleted = entmonthRepository.deleteByFiscalYear(yearStr);
-        log.info("Deleted {} months for fiscal year {}", deleted, year);
+        entmonthRepository.deleteAllInBatch(months);
+        log.info("Deleted {} months for fiscal year {}", months.size(), year);
+        calendarModelProvider.invalidate();
     }
 
     // =========================================================================
@@ -434,194 +484,29 @@ public class CtrsCalendarService {
      * Check if fiscal year exists
      */
     private boolean existsFiscalYear(Integer year) {
-        // Need to check both calendar years for a fiscal year
-        // FY2026 = OCT2025, NOV2025, DEC2025, JAN2026-SEP2026
-        String prevYear = String.valueOf(year - 1);
-        String currYear = String.valueOf(year);
-        
-        return entmonthRepository.existsByFiscalYear(prevYear) || 
-               entmonthRepository.existsByFiscalYear(currYear);
+        return entmonthRepository.existsByRptmonthIn(fiscalYearRptMonths(year));
     }
 
     /**
-     * Get all months for a fiscal year
+     * Get all months for a fiscal year in fiscal order (OCT-SEP)
      */
     private List<Entmonth> getFiscalYearMonths(Integer year) {
-        // FY2026 includes: OCT2025, NOV2025, DEC2025, JAN2026-SEP2026
-        String prevYear = String.valueOf(year - 1);
-        String currYear = String.valueOf(year);
-        
-        List<Entmonth> prevYearMonths = entmonthRepository.findByFiscalYearPattern(prevYear);
-        List<Entmonth> currYearMonths = entmonthRepository.findByFiscalYearPattern(currYear);
-        
-        // Combine and filter to just the fiscal year months
-        List<Entmonth> allMonths = new ArrayList<>();
-        
-        // Add OCT, NOV, DEC from previous calendar year
-        prevYearMonths.stream()
-            .filter(m -> {
-                String abbrev = m.getMonthAbbrev();
-                return "OCT".equals(abbrev) || "NOV".equals(abbrev) || "DEC".equals(abbrev);
-            })
-            .forEach(allMonths::add);
-        
-        // Add JAN-SEP from current calendar year
-        currYearMonths.stream()
-            .filter(m -> {
-                String abbrev = m.getMonthAbbrev();
-                return !"OCT".equals(abbrev) && !"NOV".equals(abbrev) && !"DEC".equals(abbrev);
-            })
-            .forEach(allMonths::add);
-        
-        // Sort in fiscal year order
-        allMonths.sort((a, b) -> {
-            int orderA = getFiscalMonthOrder(a.getMonthAbbrev());
-            int orderB = getFiscalMonthOrder(b.getMonthAbbrev());
-            return Integer.compare(orderA, orderB);
-        });
-        
-        return allMonths;
-    }
-
-    /**
-     * Get fiscal month order (OCT=1, NOV=2, ..., SEP=12)
-     */
-    private int getFiscalMonthOrder(String monthAbbrev) {
-        return switch (monthAbbrev) {
-            case "OCT" -> 1;
-            case "NOV" -> 2;
-            case "DEC" -> 3;
-            case "JAN" -> 4;
-            case "FEB" -> 5;
-            case "MAR" -> 6;
-            case "APR" -> 7;
-            case "MAY" -> 8;
-            case "JUN" -> 9;
-            case "JUL" -> 10;
-            case "AUG" -> 11;
-            case "SEP" -> 12;
-            default -> 13;
-        };
-    }
-
-    /**
-     * Build FiscalYearDTO from months
-     */
-    private FiscalYearDTO buildFiscalYearDTO(Integer year, List<Entmonth> months) {
-        List<FiscalMonthDTO> monthDTOs = months.stream()
-            .map(this::toFiscalMonthDTO)
-            .collect(Collectors.toList());
-
-        int totalWeeks = months.stream()
-            .mapToInt(m -> m.getWeeks() != null ? m.getWeeks() : 0)
-            .sum();
-
-        int totalWorkdays = months.stream()
-            .mapToInt(m -> m.getWorkdays() != null ? m.getWorkdays() : 0)
-            .sum();
-
-        int totalHolidays = months.stream()
-            .mapToInt(m -> m.getHolidays() != null ? m.getHolidays() : 0)
-            .sum();
-
-        int totalHours = months.stream()
-            .mapToInt(m -> m.getHours() != null ? m.getHours() : 0)
-            .sum();
-
-        boolean isActive = months.stream().anyMatch(Entmonth::isActive);
-        String status = isActive ? "Active" : "Inactive";
-
-        return FiscalYearDTO.builder()
-            .fiscalYear(year)
-            .displayLabel(String.valueOf(year))
-            .totalWeeks(totalWeeks)
-            .totalWorkdays(totalWorkdays)
-            .totalHolidays(totalHolidays)
-            .totalHours(totalHours)
-            .months(monthDTOs)
-            .active(isActive)
-            .status(status)
-            .build();
-    }
-
-    /**
-     * Convert Entmonth entity to FiscalMonthDTO
-     */
-    private FiscalMonthDTO toFiscalMonthDTO(Entmonth entity) {
-        List<FiscalMonthDTO.WeekCycleDTO> weeks = generateWeekCycles(entity);
-        String dateRange = formatDateRange(entity.getStartdt(), entity.getEnddt());
-
-        return FiscalMonthDTO.builder()
-            .rptMonth(entity.getRptmonth())
-            .monthName(entity.getMonthName())
-            .postingCycles(entity.getWeeks())
-            .startDate(entity.getStartdt())
-            .endDate(entity.getEnddt())
-            .dateRange(dateRange)
-            .workdays(entity.getWorkdays())
-            .holidays(entity.getHolidays() != null ? entity.getHolidays() : 0)
-            .hours(entity.getHours() != null ? entity.getHours() : entity.getWorkdays())
-            .startCycle(entity.getStartcyc())
-            .endCycle(entity.getEndcyc())
-            .weeks(weeks)
-            .rptNational(entity.getRptnational())
-            .expandable(true)
-            .build();
+        List<Entmonth> months = entmonthRepository.findAllByRptmonthIn(fiscalYearRptMonths(year));
+        months.sort(Comparator.comparingInt(Entmonth::getFiscalMonthOrder));
+        return months;
     }
 
     /**
-     * Generate individual week cycles for a month
+     * RPTMONTH keys of a fiscal year in fiscal order
+     * FY2026 = OCT2025, NOV2025, DEC2025, JAN2026 ... SEP2026
      */
-    private List<FiscalMonthDTO.WeekCycleDTO> generateWeekCycles(Entmonth month) {
-        List<FiscalMonthDTO.WeekCycleDTO> weeks = new ArrayList<>();
-        
-        // First try to use stored week data
-        List<Map<String, Object>> storedWeekData = parseWeekData(month.getWeekData());
-        
-        if (!storedWeekData.isEmpty()) {
-            int weekNum = 1;
-            for (Map<String, Object> weekMap : storedWeekData) {
-                weeks.add(FiscalMonthDTO.WeekCycleDTO.builder()
-                    .cycleNumber((Integer) weekMap.get("cycle"))
-                    .weekNumber(weekNum++)
-                    .startDate(parseDate(weekMap.get("startDate")))
-                    .endDate(parseDate(weekMap.get("endDate")))
-                    .dateRange((String) weekMap.get("dateRange"))
-                    .workdays((Integer) weekMap.getOrDefault("workdays", 5))
-                    .holidays((Integer) weekMap.getOrDefault("holidays", 0))
-                    .hours((Integer) weekMap.getOrDefault("hours", 40))
-                    .build());
-            }
-            return weeks;
-        }
-
-        // Fall back to generating from month data
-        if (month.getStartdt() == null || month.getStartcyc() == null || month.getWeeks() == null) {
-            return weeks;
-        }
-
-        LocalDate weekStart = month.getStartdt();
-        int cycleNum = month.getStartcyc();
-
-        for (int i = 0; i < month.getWeeks(); i++) {
-            LocalDate weekEnd = weekStart.plusDays(6);
-            
-            weeks.add(FiscalMonthDTO.WeekCycleDTO.builder()
-                .cycleNumber(cycleNum)
-                .weekNumber(i + 1)
-                .startDate(weekStart)
-                .endDate(weekEnd)
-                .dateRange(formatWeekDateRange(weekStart, weekEnd))
-                .workdays(5)
-                .holidays(0)
-                .hours(5)  // Default: 5 hours display (matches UI screenshot)
-                .build());
-
-            weekStart = weekEnd.plusDays(1);
-            cycleNum++;
+    private List<String> fiscalYearRptMonths(Integer year) {
+        List<String> rptMonths = new ArrayList<>(FISCAL_MONTH_ORDER.length);
+        for (String monthAbbrev : FISCAL_MONTH_ORDER) {
+            int calendarYear = monthAbbrev.matches("OCT|NOV|DEC") ? year - 1 : year;
+            rptMonths.add(monthAbbrev + calendarYear);
         }
-
-        return weeks;
+        return rptMonths;
     }
 
     /**
@@ -638,7 +523,7 @@ public class CtrsCalendarService {
             week.put("cycle", startCycle + i);
             week.put("startDate", weekStart.toString());
             week.put("endDate", weekEnd.toString());
-            week.put("dateRange", formatWeekDateRange(weekStart, weekEnd));
+            week.put("dateRange", renderer.formatWeekDateRange(weekStart, weekEnd));
             week.put("workdays", 5);
             week.put("holidays", 0);
             week.put("hours", 5);
@@ -647,65 +532,7 @@ public class CtrsCalendarService {
             weekStart = weekEnd.plusDays(1);
         }
 
-        return serializeWeekData(weeks);
-    }
-
-    /**
-     * Parse week data JSON
-     */
-    private List<Map<String, Object>> parseWeekData(String weekDataJson) {
-        if (weekDataJson == null || weekDataJson.isBlank()) {
-            return new ArrayList<>();
-        }
-        try {
-            return objectMapper.readValue(weekDataJson, new TypeReference<List<Map<String, Object>>>() {});
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to parse week data JSON: {}", e.getMessage());
-            return new ArrayList<>();
-        }
-    }
-
-    /**
-     * Serialize week data to JSON
-     */
-    private String serializeWeekData(List<Map<String, Object>> weeks) {
-        try {
-            return objectMapper.writeValueAsString(weeks);
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to serialize week data: {}", e.getMessage());
-            return "[]";
-        }
-    }
-
-    /**
-     * Parse date from stored format
-     */
-    private LocalDate parseDate(Object dateObj) {
-        if (dateObj == null) return null;
-        if (dateObj instanceof LocalDate) return (LocalDate) dateObj;
-        try {
-            return LocalDate.parse(dateObj.toString());
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    /**
-     * Format date range for display (e.g., "Sep 29 - Oct 26")
-     */
-    private String formatDateRange(LocalDate start, LocalDate end) {
-        if (start == null || end == null) return "";
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM d");
-        return start.format(fmt) + " - " + end.format(fmt);
-    }
-
-    /**
-     * Format week date range for display (e.g., "September 29 - October 3")
-     */
-    private String formatWeekDateRange(LocalDate start, LocalDate end) {
-        if (start == null || end == null) return "";
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMMM d");
-        return start.format(fmt) + " - " + end.format(fmt);
+        return renderer.serializeWeekData(weeks);
     }
 
     /**
@@ -0,0 +1,578 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.config.DegradedModeProperties;
+import com.entity.wtv.exception.RequestCancelledException;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Stale-while-revalidate serving with a latency circuit breaker
+ *
+ * Every call runs on a bounded worker pool and the caller waits up to
+ * wtv.degraded.latency-threshold. If the call is slower (pool saturated,
+ * slow connection checkout or slow queries) and a previous result exists,
+ * that result is served marked with its age while the call keeps running
+ * and refreshes it in the background.
+ *
+ * Consecutive slow or failed calls open the circuit: no new database calls
+ * are made until open-duration has passed, then a single probe decides
+ * whether to close it again. While open, requests with no stale result
+ * get a 503 with Retry-After.
+ *
+ * Only infrastructure failures (DataAccessException, TransactionException)
+ * count against the circuit - business exceptions are rethrown as-is.
+ * Bulkhead rejections (ServiceUnavailableException) are neutral: they
+ * say nothing about the database either way, so they neither close the
+ * circuit nor count towards opening it.
+ *
+ * Identical concurrent calls (same key) are single-flight: the first starts
+ * the call and the others join it. This is the only coalescing layer for
+ * summaries and timesheets. Callers that pass a copy function each get
+ * their own copy of the result, for mutable DTOs.
+ *
+ * Callers wait no longer than their RequestDeadline, or max-wait when the
+ * thread has none. A call whose every caller has given up is cancelled
+ * through its RequestCancellation: the running statement is cancelled and
+ * the worker stops at its next checkpoint (it is never interrupted). A
+ * cancelled call is taken out of the in-flight map at once, so a request
+ * arriving while it winds down starts a new call instead of joining it.
+ *
+ * Metrics: wtv.degraded.calls{call=summaries|timesheet|..., outcome=computed|joined}
+ * counts calls started and calls saved by joining one in flight;
+ * wtv.degraded.inflight gauges calls in progress.
+ */
+@Service
+@Slf4j
+public class DegradedModeService {
+
+    private final DegradedModeProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private final ConcurrentMap<String, StaleEntry> lastResults = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter freshCounter;
+    private final Counter staleCounter;
+    private final Counter rejectedCounter;
+    private final Counter slowCounter;
+    private final Counter cancelledCounter;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> callCounters = new ConcurrentHashMap<>();
+
+    public DegradedModeService(DegradedModeProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                properties.getPoolSize(), properties.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "wtv-db-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.freshCounter = responseCounter(meterRegistry, "fresh");
+        this.staleCounter = responseCounter(meterRegistry, "stale");
+        this.rejectedCounter = responseCounter(meterRegistry, "rejected");
+        this.slowCounter = Counter.builder("wtv.degraded.slow.calls")
+                .description("Database calls slower than the latency threshold")
+                .register(meterRegistry);
+        this.cancelledCounter = Counter.builder("wtv.degraded.cancelled")
+                .description("Callers that gave up at their request deadline")
+                .register(meterRegistry);
+        Gauge.builder("wtv.degraded.circuit.open", circuitBreaker, cb -> cb.getState() == CircuitState.CLOSED ? 0 : 1)
+                .description("1 while the database circuit breaker is open or probing")
+                .register(meterRegistry);
+        Gauge.builder("wtv.degraded.stale.entries", lastResults, Map::size)
+                .description("Last computed results available for stale serving")
+                .register(meterRegistry);
+        Gauge.builder("wtv.degraded.inflight", inFlight, Map::size)
+                .description("Database calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    private static Counter responseCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("wtv.degraded.responses")
+                .description("Summary and timesheet responses by freshness")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // =========================================================================
+    // Execution
+    // =========================================================================
+
+    /**
+     * Run a database-backed call, falling back to its last result when slow or unavailable
+     *
+     * @param key Identity of the result (endpoint + parameters); the text before the
+     *            first ':' tags the call metrics
+     * @param loader The database call
+     */
+    public <T> Served<T> execute(String key, Supplier<T> loader) {
+        return execute(key, 0, loader, UnaryOperator.identity());
+    }
+
+    /**
+     * Run a database-backed call as above, for data at least as new as a version,
+     * giving each caller its own copy of the result
+     *
+     * A call started for an older data version is not joined: its rows may
+     * predate a change the caller has already seen reported (and keyed a
+     * response cache entry on). A joined or stale result is shared with other
+     * callers, so a mutable one must be copied before it is handed out.
+     *
+     * @param dataVersion Data version the caller observed (e.g. ChangeCapturePoller.getDataVersion())
+     * @param copy Makes a caller's copy of the shared result
+     */
+    public <T> Served<T> execute(String key, long dataVersion, Supplier<T> loader, UnaryOperator<T> copy) {
+        Served<T> served = serve(key, dataVersion, loader);
+        return new Served<>(copy.apply(served.value()), served.stale(), served.age());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Served<T> serve(String key, long dataVersion, Supplier<T> loader) {
+        if (!properties.isEnabled()) {
+            return Served.fresh(loader.get());
+        }
+
+        if (!circuitBreaker.allowRequest(properties.getOpenDuration())) {
+            return serveStaleOrReject(key, "circuit open");
+        }
+
+        InFlightCall call;
+        try {
+            call = load(key, dataVersion, (Supplier<Object>) loader);
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.recordFailure(properties.getFailureThreshold());
+            return serveStaleOrReject(key, "worker pool saturated");
+        }
+
+        boolean abandoned = false;
+        try {
+            T value = (T) call.result.get(properties.getLatencyThreshold().toMillis(), TimeUnit.MILLISECONDS);
+            freshCounter.increment();
+            return Served.fresh(value);
+        } catch (TimeoutException e) {
+            Served<T> stale = findStale(key);
+            if (stale != null) {
+                log.warn("Slow call for {} - serving result aged {}s", key, stale.age().toSeconds());
+                staleCounter.increment();
+                return stale;
+            }
+            try {
+                T value = (T) awaitUntilDeadline(call);
+                freshCounter.increment();
+                return Served.fresh(value);
+            } catch (TimeoutException deadlineExceeded) {
+                abandoned = true;
+                cancelledCounter.increment();
+                throw new ServiceUnavailableException("Request deadline exceeded waiting for " + key, 1);
+            }
+        } catch (ExecutionException e) {
+            return handleFailure(key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandoned = true;
+            throw new ServiceUnavailableException("Interrupted while waiting for " + key, 1);
+        } finally {
+            if (call.leave(abandoned)) {
+                inFlight.remove(key, call);
+                call.cancellation.cancel();
+                if (call.task != null && call.task.cancel(false)) {
+                    // A call cancelled while still queued never runs, so complete it here
+                    call.result.completeExceptionally(new RequestCancelledException("Cancelled: " + key));
+                }
+            }
+        }
+    }
+
+    /**
+     * Join the call in flight for the key, or start one
+     *
+     * @return The call, already joined by this caller
+     */
+    private InFlightCall load(String key, long dataVersion, Supplier<Object> loader) {
+        InFlightCall created = new InFlightCall(dataVersion);
+        created.join();
+        while (true) {
+            InFlightCall existing = inFlight.get(key);
+            if (existing != null && existing.dataVersion >= dataVersion && existing.join()) {
+                callCounter(key, "joined").increment();
+                log.debug("Joining in-flight call for {}", key);
+                return existing;
+            }
+            // None, one cancelled by its last caller that has not wound down yet, or one
+            // started before the data changed - its own callers still get its result
+            boolean installed = existing == null
+                    ? inFlight.putIfAbsent(key, created) == null
+                    : inFlight.replace(key, existing, created);
+            if (installed) {
+                break;
+            }
+        }
+
+        long submittedNanos = System.nanoTime();
+        try {
+            created.task = executor.submit(() -> run(key, loader, created, submittedNanos));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            throw e;
+        }
+        callCounter(key, "computed").increment();
+        return created;
+    }
+
+    private Counter callCounter(String key, String outcome) {
+        int separator = key.indexOf(':');
+        String call = separator < 0 ? key : key.substring(0, separator);
+        return callCounters.computeIfAbsent(call + ":" + outcome, k -> Counter.builder("wtv.degraded.calls")
+                .description("Database calls started, and calls saved by joining one in flight")
+                .tag("call", call)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    private void run(String key, Supplier<Object> loader, InFlightCall call, long startNanos) {
+        RequestCancellation.bind(call.cancellation);
+        try {
+            RequestCancellation.checkNotCancelled();
+            Object value = loader.get();
+            remember(key, call.dataVersion, value);
+            recordLatency(Duration.ofNanos(System.nanoTime() - startNanos));
+            // Out of the map before anyone is woken, so a caller's retry starts a new call
+            inFlight.remove(key, call);
+            call.result.complete(value);
+        } catch (Throwable t) {
+            if (t instanceof RequestCancelledException || call.cancellation.isCancelled()) {
+                // Every caller gave up (a cancelled statement fails with a driver error) -
+                // says nothing about database health
+                log.debug("Cancelled abandoned call for {}", key);
+                circuitBreaker.recordNeutral();
+            } else if (t instanceof ServiceUnavailableException) {
+                // Shed by a bulkhead before reaching the database - overload, not latency
+                circuitBreaker.recordNeutral();
+            } else if (isInfrastructureFailure(t)) {
+                circuitBreaker.recordFailure(properties.getFailureThreshold());
+            } else {
+                // Business errors (not found, bad input) still prove the database answered
+                recordLatency(Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+            inFlight.remove(key, call);
+            call.result.completeExceptionally(t);
+        } finally {
+            RequestCancellation.clear();
+        }
+    }
+
+    private void recordLatency(Duration elapsed) {
+        if (elapsed.compareTo(properties.getLatencyThreshold()) > 0) {
+            slowCounter.increment();
+            circuitBreaker.recordFailure(properties.getFailureThreshold());
+        } else {
+            circuitBreaker.recordSuccess();
+        }
+    }
+
+    /**
+     * Wait for the call until the caller's request deadline, and never longer than max-wait
+     */
+    private Object awaitUntilDeadline(InFlightCall call) throws TimeoutException {
+        try {
+            Duration wait = properties.getMaxWait();
+            Duration remaining = RequestDeadline.remaining();
+            if (remaining != null && remaining.compareTo(wait) < 0) {
+                wait = remaining;
+            }
+            return call.result.get(Math.max(0, wait.toMillis()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for result", 1);
+        }
+    }
+
+    private <T> Served<T> handleFailure(String key, Throwable cause) {
+        if (isInfrastructureFailure(cause)) {
+            Served<T> stale = findStale(key);
+            if (stale != null) {
+                log.warn("Database failure for {} - serving result aged {}s: {}",
+                        key, stale.age().toSeconds(), cause.getMessage());
+                staleCounter.increment();
+                return stale;
+            }
+        }
+        throw rethrow(cause);
+    }
+
+    private <T> Served<T> serveStaleOrReject(String key, String reason) {
+        Served<T> stale = findStale(key);
+        if (stale != null) {
+            staleCounter.increment();
+            return stale;
+        }
+        rejectedCounter.increment();
+        throw new ServiceUnavailableException(
+                "Database unavailable (" + reason + ") and no previous result for " + key,
+                circuitBreaker.retryAfter(properties.getOpenDuration()).toSeconds());
+    }
+
+    private static boolean isInfrastructureFailure(Throwable t) {
+        return t instanceof DataAccessException || t instanceof TransactionException;
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // =========================================================================
+    // Last Result Store
+    // =========================================================================
+
+    private void remember(String key, long dataVersion, Object value) {
+        // A call for older data that finishes last must not replace a newer result
+        lastResults.merge(key, new StaleEntry(value, Instant.now(), dataVersion),
+                (current, computed) -> computed.dataVersion() >= current.dataVersion() ? computed : current);
+        if (lastResults.size() > properties.getMaxEntries()) {
+            lastResults.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().computedAt()))
+                    .ifPresent(oldest -> lastResults.remove(oldest.getKey(), oldest.getValue()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Served<T> findStale(String key) {
+        StaleEntry entry = lastResults.get(key);
+        if (entry == null) {
+            return null;
+        }
+        Duration age = Duration.between(entry.computedAt(), Instant.now());
+        if (age.compareTo(properties.getMaxStaleAge()) > 0) {
+            lastResults.remove(key, entry);
+            return null;
+        }
+        return new Served<>((T) entry.value(), true, age);
+    }
+
+    /**
+     * Drop last results whose key starts with the prefix (e.g. after data changes)
+     */
+    public void evict(String keyPrefix) {
+        lastResults.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    // =========================================================================
+    // Status (actuator)
+    // =========================================================================
+
+    /**
+     * Current mode, thresholds and counters for the actuator endpoint
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("circuitState", circuitBreaker.getState().name());
+        status.put("consecutiveSlowCalls", circuitBreaker.getConsecutiveFailures());
+        status.put("openedAt", circuitBreaker.getOpenedAt());
+
+        Map<String, Object> thresholds = new LinkedHashMap<>();
+        thresholds.put("latencyThreshold", properties.getLatencyThreshold().toString());
+        thresholds.put("maxWait", properties.getMaxWait().toString());
+        thresholds.put("failureThreshold", properties.getFailureThreshold());
+        thresholds.put("openDuration", properties.getOpenDuration().toString());
+        thresholds.put("maxStaleAge", properties.getMaxStaleAge().toString());
+        status.put("thresholds", thresholds);
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("fresh", (long) freshCounter.count());
+        counts.put("stale", (long) staleCounter.count());
+        counts.put("rejected", (long) rejectedCounter.count());
+        counts.put("slowCalls", (long) slowCounter.count());
+        counts.put("cancelled", (long) cancelledCounter.count());
+        status.put("counts", counts);
+
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("active", executor.getActiveCount());
+        pool.put("queued", executor.getQueue().size());
+        pool.put("size", properties.getPoolSize());
+        status.put("pool", pool);
+
+        status.put("staleEntries", lastResults.size());
+        return status;
+    }
+
+    // =========================================================================
+    // Types
+    // =========================================================================
+
+    /**
+     * A result and whether it came from the last-result store
+     *
+     * @param value The result
+     * @param stale True when served from a previous computation
+     * @param age Time since the result was computed (zero when fresh)
+     */
+    public record Served<T>(T value, boolean stale, Duration age) {
+
+        static <T> Served<T> fresh(T value) {
+            return new Served<>(value, false, Duration.ZERO);
+        }
+    }
+
+    private record StaleEntry(Object value, Instant computedAt, long dataVersion) {
+    }
+
+    /**
+     * A database call in progress and the callers waiting on it
+     *
+     * When the last waiter leaves because its deadline passed, the call is
+     * cancelled so no more queries run for clients that have gone away.
+     * Joining and leaving are serialized, so no caller can join a call in
+     * the moment its last waiter gives up on it.
+     */
+    private static final class InFlightCall {
+
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final RequestCancellation cancellation = new RequestCancellation();
+        final long dataVersion;
+        volatile Future<?> task;
+        private int waiters;
+        private boolean abandoned;
+
+        InFlightCall(long dataVersion) {
+            this.dataVersion = dataVersion;
+        }
+
+        /**
+         * @return false when the call has been abandoned or has finished and must not be joined
+         */
+        synchronized boolean join() {
+            if (abandoned || result.isDone()) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * @return true when this caller was the last and gave up - the caller
+         *         then cancels the call (outside the lock, as that reaches the driver)
+         */
+        synchronized boolean leave(boolean gaveUp) {
+            if (--waiters != 0 || !gaveUp || result.isDone()) {
+                return false;
+            }
+            abandoned = true;
+            return true;
+        }
+    }
+
+    enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Consecutive-failure circuit breaker with a single half-open probe
+     */
+    static final class CircuitBreaker {
+
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private Instant openedAt;
+
+        synchronized boolean allowRequest(Duration openDuration) {
+            return switch (state) {
+                case CLOSED -> true;
+                case HALF_OPEN -> false;
+                case OPEN -> {
+                    if (Instant.now().isAfter(openedAt.plus(openDuration))) {
+                        state = CircuitState.HALF_OPEN;
+                        yield true;
+                    }
+                    yield false;
+                }
+            };
+        }
+
+        synchronized void recordSuccess() {
+            if (state != CircuitState.CLOSED) {
+                log.info("Database latency recovered - closing circuit");
+            }
+            state = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+            openedAt = null;
+        }
+
+        /**
+         * An outcome that says nothing about the database - a probe that ended
+         * this way is given up and the circuit re-opens for another interval
+         */
+        synchronized void recordNeutral() {
+            if (state == CircuitState.HALF_OPEN) {
+                state = CircuitState.OPEN;
+                openedAt = Instant.now();
+            }
+        }
+
+        synchronized void recordFailure(int threshold) {
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN || (state == CircuitState.CLOSED && consecutiveFailures >= threshold)) {
+                log.warn("Opening database circuit after {} slow or failed calls", consecutiveFailures);
+                state = CircuitState.OPEN;
+                openedAt = Instant.now();
+            }
+        }
+
+        synchronized Duration retryAfter(Duration openDuration) {
+            if (openedAt == null) {
+                return Duration.ofSeconds(1);
+            }
+            Duration remaining = Duration.between(Instant.now(), openedAt.plus(openDuration));
+            return remaining.isNegative() ? Duration.ofSeconds(1) : remaining;
+        }
+
+        synchronized CircuitState getState() {
+            return state;
+        }
+
+        synchronized int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        synchronized Instant getOpenedAt() {
+            return openedAt;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.change.ChangeCapturePoller;
+import com.entity.wtv.change.DataChangeBatch;
+import com.entity.wtv.change.DataChangeEvent;
+import com.entity.wtv.change.DataChangeEvent.CodeChanged;
+import com.entity.wtv.change.DataChangeListener;
+import com.entity.wtv.entity.Entcode;
+import com.entity.wtv.jfr.CodeLookupEvent;
+import com.entity.wtv.repository.EntcodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time code lookups for the timesheet's non-case section, invalidated by the
+ * change-capture feed
+ *
+ * Each non-case row used to cost two ENTCODE reads per request. Entries stay
+ * until a CodeChanged event (or an incomplete batch) drops them; with change
+ * capture disabled nothing is cached.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntcodeCache implements DataChangeListener {
+
+    private final EntcodeRepository entcodeRepository;
+    private final ChangeCapturePoller changeCapturePoller;
+
+    private final Map<String, TimeCode> codes = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every invalidation so a lookup that raced with it is not stored
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Display name and TIMEDEF of a time code
+     *
+     * @param name    ENTCODE name, or the code itself when there is no active type T row
+     * @param timedef TIMEDEF of the type T row, or null when there is none
+     */
+    public record TimeCode(String name, String timedef) {
+    }
+
+    public TimeCode get(String timecode) {
+        CodeLookupEvent lookup = CodeLookupEvent.start();
+        TimeCode cached = codes.get(timecode);
+        if (cached != null) {
+            lookup.complete(timecode, true);
+            return cached;
+        }
+
+        long loadedAt = generation.get();
+        String name = entcodeRepository.findCodeNameByCode(timecode).orElse(timecode);
+        String timedef = entcodeRepository.findByCodeAndType(timecode, "T")
+                .map(Entcode::getTimedef)
+                .orElse(null);
+        TimeCode loaded = new TimeCode(name, timedef);
+
+        if (changeCapturePoller.isEnabled() && generation.get() == loadedAt) {
+            codes.putIfAbsent(timecode, loaded);
+        }
+        lookup.complete(timecode, false);
+        return loaded;
+    }
+
+    /**
+     * Load every active type T code in one query (startup warm-up)
+     *
+     * @return Number of codes cached
+     */
+    public int preload() {
+        if (!changeCapturePoller.isEnabled()) {
+            return 0;
+        }
+        long loadedAt = generation.get();
+        Map<String, TimeCode> loaded = new HashMap<>();
+        for (Entcode entcode : entcodeRepository.findAllActiveTimeCodes()) {
+            String name = entcode.getCdname() != null ? entcode.getCdname() : entcode.getCode();
+            loaded.put(entcode.getCode(), new TimeCode(name, entcode.getTimedef()));
+        }
+        if (generation.get() == loadedAt) {
+            loaded.forEach(codes::putIfAbsent);
+        }
+        return loaded.size();
+    }
+
+    @Override
+    public void onDataChange(DataChangeBatch batch) {
+        if (!batch.complete()) {
+            generation.incrementAndGet();
+            codes.clear();
+            log.debug("Time code cache cleared (incomplete change batch {})", batch.version());
+            return;
+        }
+        for (DataChangeEvent event : batch.events()) {
+            if (event instanceof CodeChanged changed) {
+                generation.incrementAndGet();
+                codes.remove(changed.code());
+                log.debug("Time code {} evicted", changed.code());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.entity.wtv.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-day bitmask helpers for Report Days
+ *
+ * Bit 0 is the first day of the requested range (Sunday for a WTV week),
+ * bit 6 is Saturday. One mask is built per source table (TIMENON, TIMETIN)
+ * and Report Days is the popcount of their union.
+ *
+ * Legacy source: getTimeVerifyData() in entity_common.pc (COUNT DISTINCT rptdt)
+ */
+public final class ReportDayMask {
+
+    /**
+     * Maximum number of days a mask can describe
+     */
+    public static final int MAX_DAYS = Long.SIZE;
+
+    private ReportDayMask() {
+    }
+
+    /**
+     * Build a mask from report dates, relative to the range start date.
+     * Dates outside [startDate, startDate + MAX_DAYS) are ignored.
+     */
+    public static long of(Collection<LocalDate> reportDates, LocalDate startDate) {
+        long mask = 0L;
+        for (LocalDate date : reportDates) {
+            long offset = ChronoUnit.DAYS.between(startDate, date);
+            if (offset >= 0 && offset < MAX_DAYS) {
+                mask |= 1L << offset;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Number of days set in the mask
+     */
+    public static int count(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Latest day set in the mask, or null if the mask is empty
+     */
+    public static LocalDate lastDay(long mask, LocalDate startDate) {
+        if (mask == 0L) return null;
+        return startDate.plusDays(MAX_DAYS - 1 - Long.numberOfLeadingZeros(mask));
+    }
+
+    /**
+     * Dates set in the mask, in ascending order
+     */
+    public static List<LocalDate> toDates(long mask, LocalDate startDate) {
+        List<LocalDate> dates = new ArrayList<>(Long.bitCount(mask));
+        long remaining = mask;
+        while (remaining != 0L) {
+            int offset = Long.numberOfTrailingZeros(remaining);
+            dates.add(startDate.plusDays(offset));
+            remaining &= remaining - 1;
+        }
+        return dates;
+    }
+
+    /**
+     * Validate that a date range fits in a single mask
+     */
+    public static void checkRange(LocalDate startDate, LocalDate endDate) {
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_DAYS) {
+            throw new IllegalArgumentException(
+                    "Date range " + startDate + " to " + endDate + " exceeds " + MAX_DAYS + " days");
+        }
+    }
+}
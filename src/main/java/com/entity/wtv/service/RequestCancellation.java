@@ -0,0 +1,93 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.exception.RequestCancelledException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cancellation signal for database work done on behalf of a client
+ *
+ * Bound to the thread running the work (a DegradedModeService worker or a
+ * streamed response). Whoever notices the client is gone calls cancel()
+ * from their own thread: the registered hooks cancel the statement in
+ * flight (Statement.cancel through Hibernate), and the work stops at its
+ * next checkpoint. The worker thread is never interrupted - an interrupt
+ * landing in the JDBC driver mid-transaction can leave the pooled
+ * connection unusable.
+ */
+@Slf4j
+public final class RequestCancellation {
+
+    private static final ThreadLocal<RequestCancellation> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+
+    // Guarded by this
+    private final List<Runnable> hooks = new ArrayList<>();
+
+    public static void bind(RequestCancellation cancellation) {
+        CURRENT.set(cancellation);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Cancellation of the work on the current thread, or null when nobody can cancel it
+     */
+    public static RequestCancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Throw if the work on the current thread has been cancelled
+     */
+    public static void checkNotCancelled() {
+        RequestCancellation cancellation = CURRENT.get();
+        if (cancellation != null && cancellation.cancelled) {
+            throw new RequestCancelledException("Request cancelled - client gone or deadline passed");
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Run the hook on cancel - at once if already cancelled
+     */
+    public void onCancel(Runnable hook) {
+        synchronized (this) {
+            if (!cancelled) {
+                hooks.add(hook);
+                return;
+            }
+        }
+        runHook(hook);
+    }
+
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toRun = List.copyOf(hooks);
+            hooks.clear();
+        }
+        toRun.forEach(RequestCancellation::runHook);
+    }
+
+    private static void runHook(Runnable hook) {
+        try {
+            hook.run();
+        } catch (RuntimeException e) {
+            // The statement or session may already be closed - nothing left to cancel
+            log.debug("Cancellation hook failed: {}", e.getMessage());
+        }
+    }
+}
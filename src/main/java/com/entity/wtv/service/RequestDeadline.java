@@ -0,0 +1,35 @@
+package com.entity.wtv.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deadline of the HTTP request being served on the current thread
+ *
+ * Set by the concurrency limiter from wtv.limiter.client-timeout: past this
+ * point the client has given up, so waiting for (or running) its database
+ * work is wasted.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Instant> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    public static void set(Instant deadline) {
+        DEADLINE.set(deadline);
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Time left before the deadline, or null when the thread has no deadline
+     */
+    public static Duration remaining() {
+        Instant deadline = DEADLINE.get();
+        return deadline != null ? Duration.between(Instant.now(), deadline) : null;
+    }
+}
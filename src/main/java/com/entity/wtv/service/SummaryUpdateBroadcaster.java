@@ -0,0 +1,454 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.change.ChangeCapturePoller;
+import com.entity.wtv.change.DataChangeBatch;
+import com.entity.wtv.change.DataChangeEvent;
+import com.entity.wtv.change.DataChangeEvent.CodeChanged;
+import com.entity.wtv.change.DataChangeEvent.EmployeeChanged;
+import com.entity.wtv.change.DataChangeEvent.TimeEntriesChanged;
+import com.entity.wtv.change.DataChangeListener;
+import com.entity.wtv.config.SummaryUpdatesProperties;
+import com.entity.wtv.dto.FieldSelection;
+import com.entity.wtv.dto.SummaryChangesDTO;
+import com.entity.wtv.dto.WeeklyTimeSummaryDTO;
+import com.entity.wtv.exception.ResourceNotFoundException;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes recomputed weekly summary rows to server-sent event subscribers
+ *
+ * Fed by the change-capture poller: each change batch is mapped onto the
+ * subscribed (week, assignment prefix) topics and each changed topic's rows are
+ * computed once. Batches and registration run on one worker thread, so topics
+ * are computed in batch order. Heartbeats have their own scheduler thread, so a
+ * slow batch does not hold them up.
+ *
+ * A small sender pool writes to the clients. Each subscriber has at most one
+ * drain task queued and a bounded map of pending rows (a newer row for the same
+ * employee replaces the older one); a client that falls further behind gets a
+ * "resync" event instead and catches up through /summaries/changes with its
+ * last event id. Heartbeat comments keep idle streams open.
+ *
+ * Events:
+ * - subscribed - id = change token to resume from (no id while no entry has an ENTRYDT)
+ * - summaries  - id = change token, data = changed WeeklyTimeSummaryDTO rows
+ * - resync     - rows were dropped; call /summaries/changes?since=<last event id>
+ * - reload     - a work code changed or change events were lost; reload /summaries
+ *
+ * Metrics: wtv.summary.updates.subscribers, wtv.summary.updates.rows,
+ * wtv.summary.updates.resync
+ */
+@Service
+@Slf4j
+public class SummaryUpdateBroadcaster implements DataChangeListener {
+
+    private final SummaryUpdatesProperties properties;
+    private final WtvService wtvService;
+    private final ChangeCapturePoller changeCapturePoller;
+    private final ExecutorService worker;
+    private final ScheduledExecutorService heartbeats;
+    private final ThreadPoolExecutor sender;
+    // Adds are synchronized on the set so the max-subscribers check and the add are one step
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter rowsCounter;
+    private final Counter resyncCounter;
+
+    public SummaryUpdateBroadcaster(SummaryUpdatesProperties properties,
+                                    WtvService wtvService,
+                                    ChangeCapturePoller changeCapturePoller,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.wtvService = wtvService;
+        this.changeCapturePoller = changeCapturePoller;
+
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "wtv-sse-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "wtv-sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        // At most one drain task per subscriber is queued, so the queue is bounded by max-subscribers
+        this.sender = new ThreadPoolExecutor(
+                properties.getSenderThreads(), properties.getSenderThreads(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "wtv-sse-send-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.sender.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("wtv.summary.updates.subscribers", subscribers, Set::size)
+                .description("Open summary event streams")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("wtv.summary.updates.rows")
+                .description("Summary rows pushed to event stream subscribers")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("wtv.summary.updates.resync")
+                .description("Slow subscribers told to resync instead of receiving queued rows")
+                .register(meterRegistry);
+
+        if (properties.isEnabled()) {
+            long heartbeat = properties.getHeartbeatInterval().toMillis();
+            heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+        heartbeats.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    // =========================================================================
+    // Subscription
+    // =========================================================================
+
+    /**
+     * Open an event stream for one week and optional assignment prefix
+     *
+     * @param lastEventId Change token from a previous stream (Last-Event-ID); rows
+     *                    changed since then are sent first
+     * @throws ResourceNotFoundException when updates or change capture are switched off
+     * @throws ServiceUnavailableException at max-subscribers
+     */
+    public SseEmitter subscribe(LocalDate startDate, LocalDate endDate, String assignmentNumberFilter,
+                                String lastEventId) {
+        ReportDayMask.checkRange(startDate, endDate);
+        if (!properties.isEnabled() || !changeCapturePoller.isEnabled()) {
+            // Not a transient condition - no Retry-After
+            throw new ResourceNotFoundException("Summary updates are disabled on this server");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(Topic.of(startDate, endDate, assignmentNumberFilter), emitter);
+        synchronized (subscribers) {
+            if (subscribers.size() >= properties.getMaxSubscribers()) {
+                throw new ServiceUnavailableException("Summary updates unavailable - too many subscribers",
+                        properties.getHeartbeatInterval().toSeconds());
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        worker.execute(() -> register(subscriber, lastEventId));
+        log.debug("Summary update subscriber added for {} ({} open)", subscriber.topic, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Runs on the worker thread: send catch-up rows and the resume point
+     */
+    private void register(Subscriber subscriber, String lastEventId) {
+        try {
+            String token = ChangeToken.encodeIfKnown(changeCapturePoller.getEntryWatermark());
+            Topic topic = subscriber.topic;
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                SummaryChangesDTO changes = wtvService.getWeeklySummaryChanges(
+                        topic.startDate(), topic.endDate(), topic.assignmentPrefix(), lastEventId, FieldSelection.ALL);
+                subscriber.offer(changes.getSummaries(), changes.getToken());
+            }
+            subscriber.subscribed(token);
+        } catch (RuntimeException e) {
+            log.warn("Could not register summary update subscriber for {}: {}", subscriber.topic, e.getMessage());
+            subscriber.close();
+        }
+    }
+
+    // =========================================================================
+    // Change Events
+    // =========================================================================
+
+    @Override
+    public void onDataChange(DataChangeBatch batch) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            worker.execute(() -> publish(batch));
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void publish(DataChangeBatch batch) {
+        if (!batch.complete() || batch.events().stream().anyMatch(CodeChanged.class::isInstance)) {
+            // Any summary may have changed - cheaper for clients to reload than to push everything
+            subscribers.forEach(Subscriber::reload);
+            return;
+        }
+
+        try {
+            Set<Topic> topics = new TreeSet<>();
+            subscribers.forEach(s -> topics.add(s.topic));
+            Map<Topic, Set<Long>> changed = new LinkedHashMap<>();
+            for (DataChangeEvent event : batch.events()) {
+                for (Topic topic : topics) {
+                    if (topic.affectedBy(event)) {
+                        changed.computeIfAbsent(topic, t -> new TreeSet<>()).add(roidOf(event));
+                    }
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            String token = ChangeToken.encodeIfKnown(batch.entryWatermark());
+            for (Map.Entry<Topic, Set<Long>> topicChange : changed.entrySet()) {
+                Topic topic = topicChange.getKey();
+                // Computed once per topic, shared by all of its subscribers
+                List<WeeklyTimeSummaryDTO> rows = wtvService.getWeeklySummariesForRoids(topicChange.getValue(),
+                        topic.startDate(), topic.endDate(), topic.assignmentPrefix(), FieldSelection.ALL);
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                subscribers.stream()
+                        .filter(s -> s.topic.equals(topic))
+                        .forEach(s -> s.offer(rows, token));
+            }
+            log.debug("Summary update batch {}: {} events, {} topics changed",
+                    batch.version(), batch.events().size(), changed.size());
+        } catch (RuntimeException e) {
+            log.warn("Summary update for batch {} failed: {}", batch.version(), e.getMessage());
+        }
+    }
+
+    private static Long roidOf(DataChangeEvent event) {
+        if (event instanceof TimeEntriesChanged time) {
+            return time.roid();
+        }
+        return ((EmployeeChanged) event).roid();
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    /**
+     * Event without an id keeps the client's Last-Event-ID - used while there is no watermark yet
+     */
+    private static SseEmitter.SseEventBuilder withId(SseEmitter.SseEventBuilder event, String token) {
+        return token != null ? event.id(token) : event;
+    }
+
+    // =========================================================================
+    // Subscribers
+    // =========================================================================
+
+    /**
+     * Week and assignment prefix a client listens to
+     */
+    record Topic(LocalDate startDate, LocalDate endDate, String assignmentPrefix) implements Comparable<Topic> {
+
+        static Topic of(LocalDate startDate, LocalDate endDate, String assignmentNumberFilter) {
+            String prefix = assignmentNumberFilter == null || assignmentNumberFilter.isBlank()
+                    ? "" : assignmentNumberFilter.trim();
+            return new Topic(startDate, endDate, prefix);
+        }
+
+        boolean affectedBy(DataChangeEvent event) {
+            if (event instanceof TimeEntriesChanged time) {
+                return time.overlaps(startDate, endDate) && String.valueOf(time.roid()).startsWith(assignmentPrefix);
+            }
+            if (event instanceof EmployeeChanged employee) {
+                return String.valueOf(employee.roid()).startsWith(assignmentPrefix);
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(Topic other) {
+            int byDate = startDate.compareTo(other.startDate);
+            if (byDate != 0) {
+                return byDate;
+            }
+            byDate = endDate.compareTo(other.endDate);
+            return byDate != 0 ? byDate : assignmentPrefix.compareTo(other.assignmentPrefix);
+        }
+    }
+
+    /**
+     * One open stream and the events waiting to be written to it
+     */
+    private final class Subscriber {
+
+        private final Topic topic;
+        private final SseEmitter emitter;
+
+        // Guarded by this
+        private final Map<Long, WeeklyTimeSummaryDTO> pendingRows = new LinkedHashMap<>();
+        private String pendingToken;
+        private boolean subscribed;
+        private String subscribedToken;
+        private boolean resync;
+        private boolean reload;
+        private boolean heartbeat;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(Topic topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        synchronized void subscribed(String token) {
+            subscribed = true;
+            subscribedToken = token;
+            scheduleDrain();
+        }
+
+        synchronized void offer(List<WeeklyTimeSummaryDTO> rows, String token) {
+            if (closed || rows.isEmpty()) {
+                return;
+            }
+            if (!resync && !reload) {
+                rows.forEach(row -> pendingRows.put(row.getAssignmentNumber(), row));
+                if (pendingRows.size() > properties.getMaxPendingRows()) {
+                    // Too far behind - drop the rows and let the client catch up from its last event id
+                    pendingRows.clear();
+                    resync = true;
+                    resyncCounter.increment();
+                }
+            }
+            pendingToken = token;
+            scheduleDrain();
+        }
+
+        synchronized void reload() {
+            if (closed) {
+                return;
+            }
+            // Supersedes anything queued
+            pendingRows.clear();
+            resync = false;
+            reload = true;
+            scheduleDrain();
+        }
+
+        synchronized void heartbeat() {
+            heartbeat = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining || closed) {
+                return;
+            }
+            draining = true;
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining = false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                List<WeeklyTimeSummaryDTO> rows;
+                String token;
+                boolean sendSubscribed;
+                String subscribedId;
+                boolean sendResync;
+                boolean sendReload;
+                boolean sendHeartbeat;
+                synchronized (this) {
+                    if (closed || (!subscribed && pendingRows.isEmpty() && !resync && !reload && !heartbeat)) {
+                        draining = false;
+                        return;
+                    }
+                    sendSubscribed = subscribed;
+                    subscribedId = subscribedToken;
+                    rows = new ArrayList<>(pendingRows.values());
+                    token = pendingToken;
+                    sendResync = resync;
+                    sendReload = reload;
+                    sendHeartbeat = heartbeat;
+                    subscribed = false;
+                    subscribedToken = null;
+                    pendingRows.clear();
+                    pendingToken = null;
+                    resync = false;
+                    reload = false;
+                    heartbeat = false;
+                }
+
+                try {
+                    if (sendReload) {
+                        emitter.send(SseEmitter.event().name("reload").data("reload"));
+                    } else if (sendResync) {
+                        // No id - the client's Last-Event-ID stays at the last rows it actually received
+                        emitter.send(SseEmitter.event().name("resync").data("resync"));
+                    } else if (!rows.isEmpty()) {
+                        emitter.send(withId(SseEmitter.event().name("summaries"), token)
+                                .data(rows, MediaType.APPLICATION_JSON));
+                        rowsCounter.increment(rows.size());
+                    } else if (sendHeartbeat && !sendSubscribed) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    // After any catch-up rows, so the resume point is the last id the client sees
+                    if (sendSubscribed) {
+                        emitter.send(withId(SseEmitter.event().name("subscribed"), subscribedId)
+                                .data(Objects.toString(subscribedId, "")));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the stream already completed
+                    log.debug("Closing summary update stream for {}: {}", topic, e.getMessage());
+                    close();
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pendingRows.clear();
+            }
+            subscribers.remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.bulkhead.WorkloadBulkheadAspect;
+import com.entity.wtv.bulkhead.WorkloadClass;
+import com.entity.wtv.change.DataChangeBatch;
+import com.entity.wtv.change.DataChangeEvent;
+import com.entity.wtv.change.DataChangeEvent.EmployeeChanged;
+import com.entity.wtv.change.DataChangeEvent.TimeEntriesChanged;
+import com.entity.wtv.change.DataChangeListener;
+import com.entity.wtv.config.PrefetchProperties;
+import com.entity.wtv.dto.EmployeeTimesheetDTO;
+import com.entity.wtv.dto.FieldSelection;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Speculative prefetch of the adjacent weeks' timesheets
+ *
+ * Users step through an employee's timesheet a week at a time (F3/F4), so
+ * after week N is served, weeks N-1 and N+1 are computed on one low-priority
+ * background thread with the same field selection and kept in a small LRU
+ * map. The next timesheet request takes its week from there if present; an
+ * entry is served once and handed over with its age, which the response
+ * carries as Age.
+ *
+ * A prefetch never competes with foreground work: it runs under its own
+ * PREFETCH bulkhead permit (never an interactive one), is dropped when its
+ * queue is full or no prefetch permit is free, and yields while the
+ * interactive bulkhead has fewer than min-free-permits free or anybody
+ * waiting. Entries are evicted when change capture reports new time or an
+ * employee change for their ROID, and otherwise expire after ttl.
+ *
+ * Metrics:
+ * - wtv.prefetch.lookups{result=hit|miss} - timesheet requests served from / not in the map
+ * - wtv.prefetch.computed - prefetches run; hits / computed is the payoff
+ * - wtv.prefetch.skipped{reason=headroom|queue|permit} - prefetches dropped
+ * - wtv.prefetch.unused - entries evicted or expired without a hit
+ */
+@Service
+@Slf4j
+public class TimesheetPrefetcher implements DataChangeListener {
+
+    private final PrefetchProperties properties;
+    private final WtvService wtvService;
+    private final WorkloadBulkheadAspect bulkhead;
+    private final ThreadPoolExecutor executor;
+    private final Map<Key, Entry> entries;
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Bumped on every eviction so a prefetch that raced with it is not stored
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter computedCounter;
+    private final Counter headroomSkipCounter;
+    private final Counter queueSkipCounter;
+    private final Counter permitSkipCounter;
+    private final Counter unusedCounter;
+
+    public TimesheetPrefetcher(PrefetchProperties properties,
+                               WtvService wtvService,
+                               WorkloadBulkheadAspect bulkhead,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.wtvService = wtvService;
+        this.bulkhead = bulkhead;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= properties.getMaxEntries()) {
+                    return false;
+                }
+                unusedCounter.increment();
+                return true;
+            }
+        });
+
+        this.executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "wtv-prefetch");
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.hitCounter = lookupCounter(meterRegistry, "hit");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+        this.computedCounter = Counter.builder("wtv.prefetch.computed")
+                .description("Adjacent-week timesheets computed in the background")
+                .register(meterRegistry);
+        this.headroomSkipCounter = skipCounter(meterRegistry, "headroom");
+        this.queueSkipCounter = skipCounter(meterRegistry, "queue");
+        this.permitSkipCounter = skipCounter(meterRegistry, "permit");
+        this.unusedCounter = Counter.builder("wtv.prefetch.unused")
+                .description("Prefetched timesheets evicted or expired without being served")
+                .register(meterRegistry);
+        Gauge.builder("wtv.prefetch.entries", entries, Map::size)
+                .description("Prefetched timesheets held")
+                .register(meterRegistry);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("wtv.prefetch.lookups")
+                .description("Timesheet requests by whether a prefetched copy was served")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter skipCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("wtv.prefetch.skipped")
+                .description("Prefetches dropped to protect foreground requests")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // =========================================================================
+    // Lookup and Prefetch
+    // =========================================================================
+
+    /**
+     * Prefetched timesheet for this request, if one is held and still valid - removed
+     * from the map, so each prefetch is served at most once
+     */
+    public Optional<Prefetched> take(Long roid, LocalDate startDate, LocalDate endDate, FieldSelection fields) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        Entry entry = entries.remove(new Key(roid, startDate, endDate, fields));
+        if (entry == null || entry.isExpired()) {
+            if (entry != null) {
+                unusedCounter.increment();
+            }
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+        return Optional.of(new Prefetched(entry.timesheet, Duration.between(entry.computedAt, Instant.now())));
+    }
+
+    /**
+     * Queue the weeks before and after a timesheet that was just served
+     */
+    public void prefetchAdjacent(Long roid, LocalDate startDate, LocalDate endDate, FieldSelection fields) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        submit(new Key(roid, startDate.minusDays(7), endDate.minusDays(7), fields));
+        submit(new Key(roid, startDate.plusDays(7), endDate.plusDays(7), fields));
+    }
+
+    private void submit(Key key) {
+        Entry held = entries.get(key);
+        if ((held != null && !held.isExpired()) || !pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> compute(key));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            queueSkipCounter.increment();
+        }
+    }
+
+    private void compute(Key key) {
+        try {
+            // Checked when the prefetch runs, not when it was queued. Advisory only - the
+            // permit below is the prefetch bulkhead's, so a race here never costs a user a permit
+            if (!bulkhead.hasHeadroom(WorkloadClass.INTERACTIVE, properties.getMinFreePermits())) {
+                headroomSkipCounter.increment();
+                return;
+            }
+            long generationAtStart = generation.get();
+            EmployeeTimesheetDTO timesheet = bulkhead.call(WorkloadClass.PREFETCH, "prefetch " + key,
+                    () -> wtvService.getEmployeeTimesheet(key.roid(), key.startDate(), key.endDate(), key.fields()));
+            computedCounter.increment();
+            if (generation.get() == generationAtStart) {
+                Instant now = Instant.now();
+                entries.put(key, new Entry(timesheet, now, now.plus(properties.getTtl())));
+            }
+        } catch (ServiceUnavailableException e) {
+            permitSkipCounter.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Unknown ROID, database trouble - the foreground request will see it
+            log.debug("Prefetch of {} failed: {}", key, e.getMessage());
+        } finally {
+            pending.remove(key);
+        }
+    }
+
+    // =========================================================================
+    // Invalidation
+    // =========================================================================
+
+    @Override
+    public void onDataChange(DataChangeBatch batch) {
+        if (entries.isEmpty() && pending.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        synchronized (entries) {
+            entries.entrySet().removeIf(held -> {
+                boolean evict = !batch.complete() || batch.events().stream()
+                        .anyMatch(event -> affects(event, held.getKey()));
+                if (evict) {
+                    unusedCounter.increment();
+                }
+                return evict;
+            });
+        }
+    }
+
+    private static boolean affects(DataChangeEvent event, Key key) {
+        if (event instanceof TimeEntriesChanged time) {
+            return time.roid().equals(key.roid()) && time.overlaps(key.startDate(), key.endDate());
+        }
+        if (event instanceof EmployeeChanged employee) {
+            return employee.roid().equals(key.roid());
+        }
+        // Work codes change every timesheet's non-case section
+        return true;
+    }
+
+    /**
+     * A prefetched timesheet and how long ago it was computed
+     */
+    public record Prefetched(EmployeeTimesheetDTO timesheet, Duration age) {
+    }
+
+    private record Key(Long roid, LocalDate startDate, LocalDate endDate, FieldSelection fields) {
+    }
+
+    private record Entry(EmployeeTimesheetDTO timesheet, Instant computedAt, Instant expiresAt) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+}
@@ -1,21 +1,38 @@
 package com.entity.wtv.service;
 
+import com.entity.wtv.bulkhead.Workload;
+import com.entity.wtv.bulkhead.WorkloadClass;
 import com.entity.wtv.dto.*;
 import com.entity.wtv.entity.*;
 import com.entity.wtv.exception.ResourceNotFoundException;
+import com.entity.wtv.jfr.CalendarResolutionEvent;
+import com.entity.wtv.jfr.EmployeeScanEvent;
+import com.entity.wtv.jfr.SummaryAggregationEvent;
+import com.entity.wtv.jfr.TimesheetEvent;
+import com.entity.wtv.jfr.TimesheetTableEvent;
 import com.entity.wtv.repository.*;
+import com.entity.wtv.repository.projection.CaseDayHoursView;
+import com.entity.wtv.repository.projection.CaseTinView;
+import com.entity.wtv.repository.projection.EmployeeSummaryView;
+import com.entity.wtv.repository.projection.NonCaseDayHoursView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAdjusters;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Weekly Time Verification Service
@@ -30,17 +47,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional(readOnly = true)
+@Workload(WorkloadClass.INTERACTIVE)
 public class WtvService {
 
     private final EntempRepository entempRepository;
-    private final EntmonthRepository entmonthRepository;
-    private final EntcodeRepository entcodeRepository;
+    private final EntcodeCache entcodeCache;
     private final TimenonRepository timenonRepository;
     private final TimetinRepository timetinRepository;
     private final EntRepository entRepository;
+    private final CalendarModelProvider calendarModelProvider;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
+    /**
+     * Oracle caps IN lists at 1000 elements
+     */
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
     // =========================================================================
     // Reporting Month / Week Selection APIs
     // =========================================================================
@@ -51,11 +77,7 @@ public class WtvService {
     public List<ReportingMonthDTO> getReportingMonths() {
         log.debug("Fetching all reporting months");
         
-        List<Entmonth> months = entmonthRepository.findAllOrderByStartDateDesc();
-        
-        return months.stream()
-                .map(this::convertToReportingMonthDTO)
-                .collect(Collectors.toList());
+        return calendarModelProvider.current().getReportingMonths();
     }
 
     /**
@@ -63,11 +85,13 @@ public class WtvService {
      */
     public List<ReportingMonthDTO.WeekDTO> getWeeksForMonth(String rptmonth) {
         log.debug("Fetching weeks for month: {}", rptmonth);
-        
-        Entmonth month = entmonthRepository.findByRptmonth(rptmonth)
+
+        CalendarResolutionEvent resolution = CalendarResolutionEvent.start();
+        Optional<ReportingMonthDTO> reportingMonth = calendarModelProvider.current().findReportingMonth(rptmonth);
+        resolution.complete("reportingMonth", rptmonth, reportingMonth.isPresent());
+        return reportingMonth
+                .map(ReportingMonthDTO::getWeeks)
                 .orElseThrow(() -> new ResourceNotFoundException("Reporting month not found: " + rptmonth));
-        
-        return generateWeeksForMonth(month);
     }
 
     /**
@@ -81,14 +105,13 @@ public class WtvService {
         LocalDate weekEnd = weekStart.plusDays(6);
         
         // Get reporting month
-        String rptmonth = entmonthRepository.findRptmonthByDate(weekStart)
-                .orElse(formatMonthYear(weekStart));
-        
+        String rptmonth = resolveRptmonth(weekStart);
+
         return PayPeriodDTO.builder()
                 .startDate(weekStart)
                 .endDate(weekEnd)
                 .reportingMonth(rptmonth)
-                .displayLabel(formatDateRange(weekStart, weekEnd))
+                .displayLabel(CalendarRenderer.formatPayPeriodRange(weekStart, weekEnd))
                 .hasPrevious(true)
                 .hasNext(true)
                 .build();
@@ -130,76 +153,161 @@ public class WtvService {
             LocalDate startDate, 
             LocalDate endDate,
             String assignmentNumberFilter) {
-        
-        log.debug("Fetching group summaries for {} to {}, filter: {}", 
-                startDate, endDate, assignmentNumberFilter);
+        return getGroupWeeklySummaries(startDate, endDate, assignmentNumberFilter, FieldSelection.ALL);
+    }
 
-        // Get eligible employees (filtered by CFF criteria)
-        List<Entemp> employees;
-        if (assignmentNumberFilter != null && !assignmentNumberFilter.isBlank()) {
-            employees = entempRepository.findByAssignmentNumberPrefix(assignmentNumberFilter + "%");
-        } else {
-            employees = entempRepository.findAllValidForWtv();
+    /**
+     * Get group weekly summaries computing only the selected columns
+     *
+     * @param fields Columns to compute; others are left null
+     */
+    public List<WeeklyTimeSummaryDTO> getGroupWeeklySummaries(
+            LocalDate startDate,
+            LocalDate endDate,
+            String assignmentNumberFilter,
+            FieldSelection fields) {
+
+        log.debug("Fetching group summaries for {} to {}, filter: {}, fields: {}",
+                startDate, endDate, assignmentNumberFilter, fields);
+        ReportDayMask.checkRange(startDate, endDate);
+        cancelQueriesWithRequest();
+
+        // Calculate summary for each employee, in ROID order straight from the cursor (ORDER BY in SQL)
+        // A cancelled request stops between employees instead of finishing the group
+        EmployeeScanEvent scan = EmployeeScanEvent.start();
+        List<WeeklyTimeSummaryDTO> summaries = new ArrayList<>();
+        try (Stream<EmployeeSummaryView> employees = streamEligibleEmployees(assignmentNumberFilter)) {
+            employees.forEachOrdered(emp -> {
+                checkNotCancelled();
+                summaries.add(calculateWeeklySummary(emp, startDate, endDate, fields));
+            });
         }
+        log.debug("Computed summaries for {} eligible employees", summaries.size());
+        scan.complete("summaries", assignmentNumberFilter, startDate, endDate, fields, -1, summaries.size());
+        return summaries;
+    }
 
-        log.debug("Found {} eligible employees", employees.size());
+    /**
+     * Stream group weekly summaries to a consumer as each one is computed
+     *
+     * Same rows as getGroupWeeklySummaries(), handed over in ROID order
+     * without ever holding the full result list. The consumer writes to the
+     * client, so the client's read speed sets how long the connection and
+     * cursor are held - this runs in the EXPORT bulkhead, not INTERACTIVE, so
+     * slow readers cannot take the permits the screens need.
+     *
+     * @param fields Columns to compute; others are left null
+     * @param consumer Receives each summary as soon as its aggregates are ready
+     * @return Number of summaries produced
+     */
+    @Workload(WorkloadClass.EXPORT)
+    public int streamGroupWeeklySummaries(
+            LocalDate startDate,
+            LocalDate endDate,
+            String assignmentNumberFilter,
+            FieldSelection fields,
+            Consumer<WeeklyTimeSummaryDTO> consumer) {
+
+        log.debug("Streaming group summaries for {} to {}, filter: {}, fields: {}",
+                startDate, endDate, assignmentNumberFilter, fields);
+        ReportDayMask.checkRange(startDate, endDate);
+        cancelQueriesWithRequest();
+
+        int count = 0;
+        EmployeeScanEvent scan = EmployeeScanEvent.start();
+        try (Stream<EmployeeSummaryView> employees = streamEligibleEmployees(assignmentNumberFilter)) {
+            Iterator<EmployeeSummaryView> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                checkNotCancelled();
+                consumer.accept(calculateWeeklySummary(iterator.next(), startDate, endDate, fields));
+                count++;
+            }
+        }
+        log.debug("Streamed summaries for {} eligible employees", count);
+        scan.complete("stream", assignmentNumberFilter, startDate, endDate, fields, -1, count);
+        return count;
+    }
 
-        // Calculate summary for each employee
-        return employees.stream()
-                .map(emp -> calculateWeeklySummary(emp, startDate, endDate))
-                .sorted(Comparator.comparing(WeeklyTimeSummaryDTO::getAssignmentNumber)
-                        .thenComparing(WeeklyTimeSummaryDTO::getTour, Comparator.nullsLast(Comparator.naturalOrder())))
-                .collect(Collectors.toList());
+    /**
+     * Eligible employees (filtered by CFF criteria) in ROID order, streamed from
+     * the cursor so employee rows are never held in memory; caller must close
+     */
+    private Stream<EmployeeSummaryView> streamEligibleEmployees(String assignmentNumberFilter) {
+        if (assignmentNumberFilter != null && !assignmentNumberFilter.isBlank()) {
+            return entempRepository.streamByAssignmentNumberPrefix(assignmentNumberFilter + "%");
+        }
+        return entempRepository.streamAllValidForWtv();
     }
 
     /**
      * Calculate weekly summary for a single employee
      * 
      * Implements the complex SQL logic from getTimeVerifyData()
+     *
+     * Only the queries behind the selected fields run; unselected columns are
+     * left null and are not serialized (see FieldSelection).
      */
-    private WeeklyTimeSummaryDTO calculateWeeklySummary(Entemp employee, LocalDate startDate, LocalDate endDate) {
+    private WeeklyTimeSummaryDTO calculateWeeklySummary(EmployeeSummaryView employee, LocalDate startDate,
+                                                        LocalDate endDate, FieldSelection fields) {
+        SummaryAggregationEvent aggregation = SummaryAggregationEvent.start();
         Long roid = employee.getRoid();
+        boolean tourOfDutyWanted = fields.includesAny("tourOfDutyHours");
+        boolean adjustmentWanted = tourOfDutyWanted || fields.includesAny("adjustedTour");
+        boolean timetinWanted = tourOfDutyWanted || fields.includesAny("hoursWorked", "caseDirectTime");
+        boolean codeDirectWanted = fields.includesAny("codeDirectTime");
+        boolean overheadWanted = fields.includesAny("overheadTime");
+        boolean lastDateWanted = fields.includesAny("lastDateEod");
+        boolean nonCaseDaysWanted = fields.includesAny("reportDays", "reportDayMask", "nonCaseDayMask");
+        boolean caseDaysWanted = lastDateWanted || fields.includesAny("reportDays", "reportDayMask", "caseDayMask");
 
         // Get hours from TIMENON
-        BigDecimal tourDutyHours = timenonRepository.sumTourDutyHours(roid, startDate, endDate);
-        BigDecimal adjustmentHours = timenonRepository.sumAdjustmentHours(roid, startDate, endDate);
-        BigDecimal scheduleHours = timenonRepository.sumScheduleHours(roid, startDate, endDate);
-        BigDecimal codeDirectHours = timenonRepository.sumCodeDirectHours(roid, startDate, endDate);
-        BigDecimal overheadHours = timenonRepository.sumOverheadHours(roid, startDate, endDate);
+        BigDecimal tourDutyHours = tourOfDutyWanted ? timenonRepository.sumTourDutyHours(roid, startDate, endDate) : null;
+        BigDecimal adjustmentHours = adjustmentWanted ? timenonRepository.sumAdjustmentHours(roid, startDate, endDate) : null;
+        BigDecimal scheduleHours = adjustmentWanted ? timenonRepository.sumScheduleHours(roid, startDate, endDate) : null;
+        BigDecimal codeDirectHours = codeDirectWanted
+                ? timenonRepository.sumCodeDirectHours(roid, startDate, endDate) : null;
+        BigDecimal overheadHours = overheadWanted
+                ? timenonRepository.sumOverheadHours(roid, startDate, endDate) : null;
 
         // Get hours from TIMETIN
-        BigDecimal timetinHours = timetinRepository.sumHoursWorked(roid, startDate, endDate);
+        BigDecimal timetinHours = timetinWanted ? timetinRepository.sumHoursWorked(roid, startDate, endDate) : null;
 
         // Calculate Tour of Duty Hours
         // Legacy: tourDutyHours + timetinHours - adjustmentHours - scheduleHours
-        BigDecimal tourOfDuty = tourDutyHours
-                .add(timetinHours)
-                .subtract(adjustmentHours)
-                .subtract(scheduleHours);
+        BigDecimal tourOfDuty = tourOfDutyWanted
+                ? tourDutyHours.add(timetinHours).subtract(adjustmentHours).subtract(scheduleHours)
+                : null;
 
         // Calculate Adjusted Tour
         // Legacy: adjustmentHours - scheduleHours
-        BigDecimal adjustedTour = adjustmentHours.subtract(scheduleHours);
+        BigDecimal adjustedTour = adjustmentWanted ? adjustmentHours.subtract(scheduleHours) : null;
 
         // Calculate Report Days
-        // Legacy: count distinct rptdt from timenon (excluding 750) + count from timetin where not exists in timenon
-        Integer timenonDays = timenonRepository.countDistinctReportDays(roid, startDate, endDate);
-        Integer uniqueTimetinDays = timetinRepository.countUniqueTimetinDays(roid, startDate, endDate);
-        int reportDays = (timenonDays != null ? timenonDays : 0) + (uniqueTimetinDays != null ? uniqueTimetinDays : 0);
+        // Legacy: count distinct rptdt from timenon (excluding 750/760) + count from timetin where not exists in timenon
+        // One range scan per source builds a day mask; the union popcount gives the distinct days
+        long nonCaseDayMask = nonCaseDaysWanted ? ReportDayMask.of(
+                timenonRepository.findDistinctReportDates(roid, startDate, endDate), startDate) : 0L;
+        long caseDayMask = caseDaysWanted ? ReportDayMask.of(
+                timetinRepository.findDistinctReportDates(roid, startDate, endDate), startDate) : 0L;
+        long reportDayMask = nonCaseDayMask | caseDayMask;
 
         // Get Last Date EOD (max of both tables)
-        LocalDate timenonMaxDate = timenonRepository.findMaxReportDate(roid, startDate, endDate);
-        LocalDate timetinMaxDate = timetinRepository.findMaxReportDate(roid, startDate, endDate);
+        // TIMENON max includes 750/760 entries, so it still needs its own lookup
         LocalDate lastDateEod = null;
-        if (timenonMaxDate != null && timetinMaxDate != null) {
-            lastDateEod = timenonMaxDate.isAfter(timetinMaxDate) ? timenonMaxDate : timetinMaxDate;
-        } else if (timenonMaxDate != null) {
-            lastDateEod = timenonMaxDate;
-        } else {
-            lastDateEod = timetinMaxDate;
+        if (lastDateWanted) {
+            LocalDate timenonMaxDate = timenonRepository.findMaxReportDate(roid, startDate, endDate);
+            LocalDate timetinMaxDate = ReportDayMask.lastDay(caseDayMask, startDate);
+            if (timenonMaxDate != null && timetinMaxDate != null) {
+                lastDateEod = timenonMaxDate.isAfter(timetinMaxDate) ? timenonMaxDate : timetinMaxDate;
+            } else if (timenonMaxDate != null) {
+                lastDateEod = timenonMaxDate;
+            } else {
+                lastDateEod = timetinMaxDate;
+            }
         }
 
-        return WeeklyTimeSummaryDTO.builder()
+        boolean reportDaysWanted = nonCaseDaysWanted && caseDaysWanted;
+        WeeklyTimeSummaryDTO summary = WeeklyTimeSummaryDTO.builder()
                 .assignmentNumber(roid)
                 .employeeName(employee.getName())
                 .tourOfDutyHours(tourOfDuty)
@@ -208,13 +316,113 @@ public class WtvService {
                 .caseDirectTime(timetinHours)
                 .codeDirectTime(codeDirectHours)
                 .overheadTime(overheadHours)
-                .reportDays(reportDays)
+                .reportDays(reportDaysWanted ? ReportDayMask.count(reportDayMask) : null)
+                .reportDayMask(reportDaysWanted ? reportDayMask : null)
+                .nonCaseDayMask(nonCaseDaysWanted ? nonCaseDayMask : null)
+                .caseDayMask(caseDaysWanted ? caseDayMask : null)
                 .tourOfDutyType(employee.getTourOfDutyType())
                 .tour(employee.getTour())
-                .lastDateEod(lastDateEod != null ? lastDateEod.format(DATE_FORMATTER) : "")
+                .lastDateEod(lastDateWanted ? (lastDateEod != null ? lastDateEod.format(DATE_FORMATTER) : "") : null)
                 .build();
+
+        int queries = (tourOfDutyWanted ? 1 : 0) + (adjustmentWanted ? 2 : 0) + (timetinWanted ? 1 : 0)
+                + (codeDirectWanted ? 1 : 0) + (overheadWanted ? 1 : 0)
+                + (nonCaseDaysWanted ? 1 : 0) + (caseDaysWanted ? 1 : 0) + (lastDateWanted ? 1 : 0);
+        aggregation.complete(roid, startDate, endDate, queries);
+        return summary;
+    }
+
+    // =========================================================================
+    // Summary Changes API (Incremental Refresh)
+    // =========================================================================
+
+    /**
+     * Get summaries only for employees whose time in the week was entered or
+     * changed since a change token
+     *
+     * Without a token every eligible employee is returned (full = true) with a
+     * token for the next call. With one, changed ROIDs come from two range scans
+     * on the ENTRYDT indexes, so the cost follows the number of new entries.
+     * Rows deleted outright leave no ENTRYDT and are not reported.
+     *
+     * @param since Token from the previous call, or null for a full snapshot
+     * @throws IllegalArgumentException if the token cannot be read
+     */
+    public SummaryChangesDTO getWeeklySummaryChanges(
+            LocalDate startDate,
+            LocalDate endDate,
+            String assignmentNumberFilter,
+            String since,
+            FieldSelection fields) {
+
+        ReportDayMask.checkRange(startDate, endDate);
+        cancelQueriesWithRequest();
+
+        if (since == null || since.isBlank()) {
+            // Watermark taken before the rows are computed - anything keyed meanwhile shows up next time
+            LocalDateTime watermark = ChangeToken.latest(
+                    timenonRepository.findMaxEntryDate(), timetinRepository.findMaxEntryDate());
+            return SummaryChangesDTO.builder()
+                    .token(ChangeToken.encode(watermark))
+                    .full(true)
+                    .summaries(getGroupWeeklySummaries(startDate, endDate, assignmentNumberFilter, fields))
+                    .build();
+        }
+
+        // Re-read a little before the watermark to catch entries committed after they were stamped;
+        // those employees are simply sent again
+        LocalDateTime watermark = ChangeToken.decode(since);
+        LocalDateTime from = watermark.minus(ChangeToken.COMMIT_LAG);
+        Map<Long, LocalDateTime> changed = new TreeMap<>();
+        Stream.concat(
+                timenonRepository.findRoidsEnteredSince(from, startDate, endDate).stream(),
+                timetinRepository.findRoidsEnteredSince(from, startDate, endDate).stream())
+                .forEach(entry -> changed.merge(entry.getRoid(), entry.getLastEntry(), ChangeToken::latest));
+        LocalDateTime next = changed.values().stream().reduce(watermark, ChangeToken::latest);
+
+        List<WeeklyTimeSummaryDTO> summaries = getWeeklySummariesForRoids(
+                changed.keySet(), startDate, endDate, assignmentNumberFilter, fields);
+        log.debug("{} employees changed since {} ({} eligible)", changed.size(), watermark, summaries.size());
+
+        return SummaryChangesDTO.builder()
+                .token(ChangeToken.encode(next))
+                .full(false)
+                .summaries(summaries)
+                .build();
+    }
+
+    /**
+     * Weekly summaries for specific employees, skipping those not eligible or
+     * outside the assignment prefix, in ROID order
+     */
+    public List<WeeklyTimeSummaryDTO> getWeeklySummariesForRoids(
+            Collection<Long> roids,
+            LocalDate startDate,
+            LocalDate endDate,
+            String assignmentNumberFilter,
+            FieldSelection fields) {
+
+        String prefix = assignmentNumberFilter == null || assignmentNumberFilter.isBlank()
+                ? null : assignmentNumberFilter.trim();
+        List<Long> selected = roids.stream()
+                .filter(roid -> prefix == null || String.valueOf(roid).startsWith(prefix))
+                .sorted()
+                .toList();
+
+        EmployeeScanEvent scan = EmployeeScanEvent.start();
+        List<WeeklyTimeSummaryDTO> summaries = new ArrayList<>();
+        for (int i = 0; i < selected.size(); i += IN_LIST_CHUNK_SIZE) {
+            List<Long> chunk = selected.subList(i, Math.min(i + IN_LIST_CHUNK_SIZE, selected.size()));
+            for (EmployeeSummaryView employee : entempRepository.findValidForWtvByRoidIn(chunk)) {
+                checkNotCancelled();
+                summaries.add(calculateWeeklySummary(employee, startDate, endDate, fields));
+            }
+        }
+        scan.complete("roids", assignmentNumberFilter, startDate, endDate, fields, selected.size(), summaries.size());
+        return summaries;
     }
 
+
     // =========================================================================
     // Employee Timesheet Detail API (Drill-Down)
     // =========================================================================
@@ -232,7 +440,19 @@ public class WtvService {
      * @param endDate Week end date (Saturday)
      */
     public EmployeeTimesheetDTO getEmployeeTimesheet(Long roid, LocalDate startDate, LocalDate endDate) {
-        log.debug("Fetching timesheet for ROID {} from {} to {}", roid, startDate, endDate);
+        return getEmployeeTimesheet(roid, startDate, endDate, FieldSelection.ALL);
+    }
+
+    /**
+     * Get an employee timesheet building only the selected tables
+     *
+     * @param fields Properties to populate; unselected tables are not queried
+     */
+    public EmployeeTimesheetDTO getEmployeeTimesheet(Long roid, LocalDate startDate, LocalDate endDate,
+                                                     FieldSelection fields) {
+        log.debug("Fetching timesheet for ROID {} from {} to {}, fields: {}", roid, startDate, endDate, fields);
+        cancelQueriesWithRequest();
+        TimesheetEvent event = TimesheetEvent.start();
 
         // Validate employee exists and is valid for WTV
         Entemp employee = entempRepository.findByRoid(roid)
@@ -243,8 +463,7 @@ public class WtvService {
         }
 
         // Get reporting month
-        String rptmonth = entmonthRepository.findRptmonthByDate(startDate)
-                .orElse(formatMonthYear(startDate));
+        String rptmonth = resolveRptmonth(startDate);
 
         // Build response
         EmployeeTimesheetDTO timesheet = EmployeeTimesheetDTO.builder()
@@ -258,15 +477,31 @@ public class WtvService {
         // Initialize day labels
         timesheet.initializeDayLabels();
 
-        // Populate the three tables
-        timesheet.setDailySummary(getDailySummary(roid, startDate, endDate));
-        timesheet.setCaseTimeEntries(getCaseTimeEntries(roid, startDate, endDate));
-        timesheet.setNonCaseTimeEntries(getNonCaseTimeEntries(roid, startDate, endDate));
+        // Populate the requested tables
+        if (fields.includesAny("dailySummary")) {
+            TimesheetTableEvent table = TimesheetTableEvent.start();
+            timesheet.setDailySummary(getDailySummary(roid, startDate, endDate));
+            table.complete(roid, "dailySummary", timesheet.getDailySummary().size());
+        }
+        checkNotCancelled();
+        if (fields.includesAny("caseTimeEntries", "totalDirectCaseTime")) {
+            TimesheetTableEvent table = TimesheetTableEvent.start();
+            timesheet.setCaseTimeEntries(getCaseTimeEntries(roid, startDate, endDate));
+            table.complete(roid, "caseTime", timesheet.getCaseTimeEntries().size());
+        }
+        checkNotCancelled();
+        if (fields.includesAny("nonCaseTimeEntries", "totalNonCreditDirectCaseTime")) {
+            TimesheetTableEvent table = TimesheetTableEvent.start();
+            timesheet.setNonCaseTimeEntries(getNonCaseTimeEntries(roid, startDate, endDate));
+            table.complete(roid, "nonCaseTime", timesheet.getNonCaseTimeEntries().size());
+        }
 
         // Calculate totals
         timesheet.calculateTotalDirectCaseTime();
         timesheet.calculateTotalNonCreditDirectCaseTime();
 
+        event.complete(roid, startDate, endDate, fields,
+                timesheet.getCaseTimeEntries().size(), timesheet.getNonCaseTimeEntries().size());
         return timesheet;
     }
 
@@ -305,32 +540,38 @@ public class WtvService {
      * Legacy source: getTimeVerifyTinData() in entity_common.pc
      */
     private List<CaseTimeEntryDTO> getCaseTimeEntries(Long roid, LocalDate startDate, LocalDate endDate) {
-        // Get distinct TINSIDs for this employee in date range
-        List<Long> timesids = timetinRepository.findDistinctTimesids(roid, startDate, endDate);
-        
+        // Hours per TINSID and day for this employee in date range (one streamed read)
+        Map<Long, Map<LocalDate, BigDecimal>> hoursByTimesid = new LinkedHashMap<>();
+        try (Stream<CaseDayHoursView> rows = timetinRepository.streamDailyHoursByTimesid(roid, startDate, endDate)) {
+            rows.forEach(row -> hoursByTimesid
+                    .computeIfAbsent(row.getTimesid(), k -> new HashMap<>())
+                    .put(row.getRptdt(), row.getHours()));
+        }
+        List<Long> timesids = new ArrayList<>(hoursByTimesid.keySet());
+
         if (timesids.isEmpty()) {
             return Collections.emptyList();
         }
 
         // Get TIN info from ENT table
-        List<Ent> entRecords = entRepository.findByTinsidIn(timesids);
-        Map<Long, Ent> entMap = entRecords.stream()
-                .collect(Collectors.toMap(Ent::getTinsid, e -> e));
+        Map<Long, CaseTinView> entMap = entRepository.findTinViewsByTinsidIn(timesids).stream()
+                .collect(Collectors.toMap(CaseTinView::getTinsid, e -> e));
 
         // Build case time entries
         List<CaseTimeEntryDTO> entries = new ArrayList<>();
         
         for (Long timesid : timesids) {
-            Ent ent = entMap.get(timesid);
+            CaseTinView ent = entMap.get(timesid);
             String tin = ent != null ? ent.getFormattedTin() : String.valueOf(timesid);
             String name = ent != null ? ent.getTaxpayerName() : "Unknown";
 
             CaseTimeEntryDTO entry = CaseTimeEntryDTO.create(tin, name, roid, timesid);
 
             // Get hours for each day
+            Map<LocalDate, BigDecimal> dailyHours = hoursByTimesid.get(timesid);
             for (int i = 0; i < 7; i++) {
                 LocalDate date = startDate.plusDays(i);
-                BigDecimal dayHours = timetinRepository.sumHoursForTimesidAndDate(roid, timesid, date);
+                BigDecimal dayHours = dailyHours.getOrDefault(date, BigDecimal.ZERO);
                 String dayKey = getDayKey(date.getDayOfWeek());
                 entry.setHoursForDay(dayKey, dayHours);
             }
@@ -353,9 +594,15 @@ public class WtvService {
      * Legacy source: getTimeVerifyNonData() in entity_common.pc
      */
     private List<NonCaseTimeEntryDTO> getNonCaseTimeEntries(Long roid, LocalDate startDate, LocalDate endDate) {
-        // Get distinct timecodes used
-        List<String> timecodes = timenonRepository.findDistinctTimecodes(roid, startDate, endDate);
-        
+        // Hours per timecode and day for this employee in date range (one streamed read)
+        Map<String, Map<LocalDate, BigDecimal>> hoursByTimecode = new TreeMap<>();
+        try (Stream<NonCaseDayHoursView> rows = timenonRepository.streamDailyHoursByTimecode(roid, startDate, endDate)) {
+            rows.forEach(row -> hoursByTimecode
+                    .computeIfAbsent(row.getTimecode(), k -> new HashMap<>())
+                    .put(row.getRptdt(), row.getHours()));
+        }
+        Set<String> timecodes = hoursByTimecode.keySet();
+
         if (timecodes.isEmpty()) {
             return Collections.emptyList();
         }
@@ -363,19 +610,16 @@ public class WtvService {
         List<NonCaseTimeEntryDTO> entries = new ArrayList<>();
 
         for (String timecode : timecodes) {
-            // Get code description
-            String codeName = entcodeRepository.findCodeNameByCode(timecode)
-                    .orElse(timecode);
+            // Get code description and TIMEDEF (cached until ENTCODE changes)
+            EntcodeCache.TimeCode code = entcodeCache.get(timecode);
+            String codeName = code.name();
             
             // Determine category type
-            Entcode entcode = entcodeRepository.findByCodeAndType(timecode, "T").orElse(null);
             String categoryType = "T";
-            if (entcode != null) {
-                if ("A".equals(entcode.getTimedef()) || "S".equals(entcode.getTimedef())) {
-                    categoryType = "A";
-                } else if ("I".equals(entcode.getTimedef())) {
-                    categoryType = "I";
-                }
+            if ("A".equals(code.timedef()) || "S".equals(code.timedef())) {
+                categoryType = "A";
+            } else if ("I".equals(code.timedef())) {
+                categoryType = "I";
             }
 
             NonCaseTimeEntryDTO entry = NonCaseTimeEntryDTO.create(
@@ -385,9 +629,10 @@ public class WtvService {
                     roid);
 
             // Get hours for each day
+            Map<LocalDate, BigDecimal> dailyHours = hoursByTimecode.get(timecode);
             for (int i = 0; i < 7; i++) {
                 LocalDate date = startDate.plusDays(i);
-                BigDecimal dayHours = timenonRepository.sumHoursForDateAndCode(roid, date, timecode);
+                BigDecimal dayHours = dailyHours.getOrDefault(date, BigDecimal.ZERO);
                 
                 // TODO: Revisit - Timecode 760 special handling
                 // Legacy uses decode(hours,0,1,0) for this code
@@ -397,7 +642,7 @@ public class WtvService {
                 }
                 
                 // For adjustment codes, hours may need to be negated in display
-                if ("A".equals(categoryType) && entcode != null && "A".equals(entcode.getTimedef())) {
+                if ("A".equals(categoryType) && "A".equals(code.timedef())) {
                     dayHours = dayHours.negate();
                 }
 
@@ -421,61 +666,33 @@ public class WtvService {
     // Helper Methods
     // =========================================================================
 
-    private ReportingMonthDTO convertToReportingMonthDTO(Entmonth month) {
-        ReportingMonthDTO dto = ReportingMonthDTO.builder()
-                .id(month.getRptmonth())
-                .rptmonth(month.getRptmonth())
-                .displayLabel(formatMonthDisplay(month))
-                .startDate(month.getStartdt())
-                .endDate(month.getEnddt())
-                .weekCount(month.getWeeks())
-                .build();
-
-        dto.setWeeks(generateWeeksForMonth(month));
-        return dto;
-    }
-
-    private List<ReportingMonthDTO.WeekDTO> generateWeeksForMonth(Entmonth month) {
-        List<ReportingMonthDTO.WeekDTO> weeks = new ArrayList<>();
-        
-        if (month.getStartdt() == null || month.getWeeks() == null) {
-            return weeks;
-        }
-
-        LocalDate weekStart = month.getStartdt();
-        int numWeeks = month.getWeeks() != null ? month.getWeeks() : 4;
-        int postingCycle = month.getStartcyc() != null ? month.getStartcyc() : 1;
-
-        for (int i = 1; i <= numWeeks; i++) {
-            LocalDate weekEnd = weekStart.plusDays(6);
-            
-            weeks.add(ReportingMonthDTO.WeekDTO.builder()
-                    .weekNumber(i)
-                    .postingCycle(postingCycle++)
-                    .startDate(weekStart)
-                    .endDate(weekEnd)
-                    .displayLabel(formatDateRange(weekStart, weekEnd))
-                    .build());
-            
-            weekStart = weekStart.plusDays(7);
-        }
-
-        return weeks;
-    }
-
-    private String formatMonthDisplay(Entmonth month) {
-        if (month.getStartdt() == null) return month.getRptmonth();
-        return month.getStartdt().format(DateTimeFormatter.ofPattern("MMMM yyyy"));
+    /**
+     * Reporting month containing a date, or its calendar month when ENTMONTH has none
+     */
+    private String resolveRptmonth(LocalDate date) {
+        CalendarResolutionEvent resolution = CalendarResolutionEvent.start();
+        Optional<String> rptmonth = calendarModelProvider.current().findRptmonthByDate(date);
+        resolution.complete("rptmonthByDate", date, rptmonth.isPresent());
+        return rptmonth.orElseGet(() -> CalendarRenderer.formatMonthYear(date));
     }
 
-    private String formatMonthYear(LocalDate date) {
-        return date.format(DateTimeFormatter.ofPattern("MMMM yyyy"));
+    /**
+     * Stop work whose caller has given up (see RequestCancellation)
+     */
+    private void checkNotCancelled() {
+        RequestCancellation.checkNotCancelled();
     }
 
-    private String formatDateRange(LocalDate start, LocalDate end) {
-        return String.format("%s - %s", 
-                start.format(DATE_FORMATTER), 
-                end.format(DATE_FORMATTER));
+    /**
+     * Have a cancel of the current request also cancel the statement running
+     * in this transaction (Statement.cancel - the connection stays usable)
+     */
+    private void cancelQueriesWithRequest() {
+        RequestCancellation cancellation = RequestCancellation.current();
+        if (cancellation != null) {
+            Session session = entityManager.unwrap(Session.class);
+            cancellation.onCancel(session::cancelQuery);
+        }
     }
 
     private String getDayKey(DayOfWeek dayOfWeek) {
@@ -495,32 +712,34 @@ public class WtvService {
     // =========================================================================
 
     /**
-     * Export group summaries to CSV format
+     * Export group summaries to CSV format, one line at a time
+     * Runs in the EXPORT bulkhead so region-wide exports cannot starve the screens
+     *
+     * @param lines Receives the header, then each row as soon as it is computed (ROID order)
+     * @return Number of rows exported
      */
-    public String exportSummariesToCsv(LocalDate startDate, LocalDate endDate, String assignmentNumberFilter) {
-        List<WeeklyTimeSummaryDTO> summaries = getGroupWeeklySummaries(startDate, endDate, assignmentNumberFilter);
-        
+    @Workload(WorkloadClass.EXPORT)
+    public int exportSummariesToCsv(LocalDate startDate, LocalDate endDate, String assignmentNumberFilter,
+                                    Consumer<String> lines) {
+        lines.accept("Assignment #,Employee Name,Tour of Duty Hours,Adjusted Tour,Hours Worked,"
+                + "Case Direct Time,Code Direct Time,Overhead Time,Report Days,Tour of Duty Type,Last Date EOD\n");
+        return streamGroupWeeklySummaries(startDate, endDate, assignmentNumberFilter, FieldSelection.ALL,
+                summary -> lines.accept(toCsvRow(summary)));
+    }
+
+    private static String toCsvRow(WeeklyTimeSummaryDTO summary) {
         StringBuilder csv = new StringBuilder();
-        
-        // Header row
-        csv.append("Assignment #,Employee Name,Tour of Duty Hours,Adjusted Tour,Hours Worked,");
-        csv.append("Case Direct Time,Code Direct Time,Overhead Time,Report Days,Tour of Duty Type,Last Date EOD\n");
-        
-        // Data rows
-        for (WeeklyTimeSummaryDTO summary : summaries) {
-            csv.append(summary.getAssignmentNumber()).append(",");
-            csv.append("\"").append(summary.getEmployeeName() != null ? summary.getEmployeeName() : "").append("\",");
-            csv.append(summary.getTourOfDutyHours()).append(",");
-            csv.append(summary.getAdjustedTour()).append(",");
-            csv.append(summary.getHoursWorked()).append(",");
-            csv.append(summary.getCaseDirectTime()).append(",");
-            csv.append(summary.getCodeDirectTime()).append(",");
-            csv.append(summary.getOverheadTime()).append(",");
-            csv.append(summary.getReportDays()).append(",");
-            csv.append(summary.getTourOfDutyType()).append(",");
-            csv.append(summary.getLastDateEod() != null ? summary.getLastDateEod() : "").append("\n");
-        }
-        
+        csv.append(summary.getAssignmentNumber()).append(",");
+        csv.append("\"").append(summary.getEmployeeName() != null ? summary.getEmployeeName() : "").append("\",");
+        csv.append(summary.getTourOfDutyHours()).append(",");
+        csv.append(summary.getAdjustedTour()).append(",");
+        csv.append(summary.getHoursWorked()).append(",");
+        csv.append(summary.getCaseDirectTime()).append(",");
+        csv.append(summary.getCodeDirectTime()).append(",");
+        csv.append(summary.getOverheadTime()).append(",");
+        csv.append(summary.getReportDays()).append(",");
+        csv.append(summary.getTourOfDutyType()).append(",");
+        csv.append(summary.getLastDateEod() != null ? summary.getLastDateEod() : "").append("\n");
         return csv.toString();
     }
 }
@@ -0,0 +1,220 @@
+package com.entity.wtv.startup;
+
+import com.entity.wtv.config.WarmupProperties;
+import com.entity.wtv.repository.EntempRepository;
+import com.entity.wtv.repository.projection.EmployeeSummaryView;
+import com.entity.wtv.service.CalendarModelProvider;
+import com.entity.wtv.service.EntcodeCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Warms the node up before it reports ready
+ *
+ * Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC only after every
+ * ApplicationRunner returns, so /actuator/health/readiness stays DOWN while
+ * this runs. Steps, in order:
+ * - calendar: build the ENTMONTH calendar model
+ * - codes: load the active ENTCODE time codes into EntcodeCache
+ * - groups: find the largest groups (assignment number prefixes)
+ * - summaries: GET /summaries for the current and previous week of each group
+ *   through the local HTTP port, so the MVC, JPA and Jackson paths are JIT-warm
+ *   and the response cache and stale store hold the bodies the UI asks for first
+ * - encodings: the columnar, CBOR and Smile variants of one of them, plus
+ *   /reporting-months
+ *
+ * Warm-up runs on its own thread and the runner waits at most wtv.warmup.budget;
+ * past that it is interrupted and readiness switches anyway. A failing step is
+ * logged and skipped.
+ *
+ * Metrics: wtv.warmup.step{step}
+ */
+@Component
+@Slf4j
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String API = "/api/wtv";
+
+    private final WarmupProperties properties;
+    private final CalendarModelProvider calendarModelProvider;
+    private final EntcodeCache entcodeCache;
+    private final EntempRepository entempRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public WarmupRunner(WarmupProperties properties,
+                        CalendarModelProvider calendarModelProvider,
+                        EntcodeCache entcodeCache,
+                        EntempRepository entempRepository,
+                        PlatformTransactionManager transactionManager,
+                        Environment environment,
+                        MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.calendarModelProvider = calendarModelProvider;
+        this.entcodeCache = entcodeCache;
+        this.entempRepository = entempRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "wtv-warmup");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            Future<?> warmup = executor.submit(this::warmUp);
+            warmup.get(properties.getBudget().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Warm-up finished in {} ms", elapsedMillis(started));
+        } catch (TimeoutException e) {
+            log.warn("Warm-up budget of {} used up - reporting ready without finishing", properties.getBudget());
+        } catch (ExecutionException e) {
+            log.warn("Warm-up aborted: {}", e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp() {
+        step("calendar", () -> {
+            calendarModelProvider.current();
+            return "model version " + calendarModelProvider.getVersion();
+        });
+        step("codes", () -> entcodeCache.preload() + " time codes");
+
+        List<String> groups = step("groups", this::largestGroups);
+        if (groups == null) {
+            return;
+        }
+
+        String port = environment.getProperty("local.server.port");
+        if (port == null) {
+            log.info("Warm-up skipped HTTP steps - no web server");
+            return;
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) Duration.ofSeconds(5).toMillis());
+        requestFactory.setReadTimeout((int) properties.getBudget().toMillis());
+        RestClient client = RestClient.builder()
+                .requestFactory(requestFactory)
+                .baseUrl("http://localhost:" + port + environment.getProperty("server.servlet.context-path", "") + API)
+                .build();
+
+        LocalDate currentWeek = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+        List<LocalDate> weeks = List.of(currentWeek, currentWeek.minusWeeks(1));
+        step("summaries", () -> {
+            int bodies = 0;
+            for (LocalDate week : weeks) {
+                for (String group : groups) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return bodies + " responses (interrupted)";
+                    }
+                    get(client, summariesUri("/summaries", week, group), properties.getAccept());
+                    bodies++;
+                }
+            }
+            return bodies + " responses";
+        });
+
+        if (!groups.isEmpty()) {
+            String uri = summariesUri("/summaries/columnar", currentWeek, groups.get(0));
+            step("encodings", () -> {
+                get(client, uri, properties.getAccept());
+                get(client, uri, "application/cbor");
+                get(client, uri, "application/x-jackson-smile");
+                get(client, "/reporting-months", properties.getAccept());
+                return "4 responses";
+            });
+        }
+    }
+
+    /**
+     * Assignment number prefixes with the most WTV employees, largest first
+     */
+    private List<String> largestGroups() {
+        int prefixLength = properties.getGroupPrefixLength();
+        Map<String, Long> sizes = readOnlyTransaction.execute(status -> {
+            try (Stream<EmployeeSummaryView> employees = entempRepository.streamAllValidForWtv()) {
+                return employees
+                        .map(employee -> String.valueOf(employee.getRoid()))
+                        .filter(roid -> roid.length() >= prefixLength)
+                        .collect(Collectors.groupingBy(roid -> roid.substring(0, prefixLength), Collectors.counting()));
+            }
+        });
+        return sizes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(properties.getTopGroups())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static String summariesUri(String path, LocalDate weekStart, String group) {
+        return path + "?startDate=" + weekStart + "&endDate=" + weekStart.plusDays(6) + "&assignmentNumber=" + group;
+    }
+
+    private static void get(RestClient client, String uri, String accept) {
+        client.get().uri(uri).header(HttpHeaders.ACCEPT, accept).retrieve().toBodilessEntity();
+    }
+
+    private <T> T step(String name, Supplier<T> action) {
+        if (Thread.currentThread().isInterrupted()) {
+            // Budget used up - the node is already taking traffic
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            T result = action.get();
+            log.info("Warm-up {}: {} in {} ms", name, result, elapsedMillis(started));
+            return result;
+        } catch (RuntimeException e) {
+            log.warn("Warm-up {} failed after {} ms: {}", name, elapsedMillis(started), e.getMessage());
+            return null;
+        } finally {
+            Timer.builder("wtv.warmup.step")
+                    .description("Startup warm-up step duration")
+                    .tag("step", name)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
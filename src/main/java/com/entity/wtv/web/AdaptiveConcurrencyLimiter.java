@@ -0,0 +1,110 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.config.ConcurrencyLimitProperties;
+
+/**
+ * Gradient concurrency limit driven by observed latency
+ *
+ * Keeps a fast (short-term) and a slow (long-term baseline) moving average
+ * of request latency. While the endpoint is busy, the limit is scaled by
+ * gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0) plus a small
+ * queue allowance of sqrt(limit): latency rising above the baseline shrinks
+ * the limit, steady latency lets it grow. Dropped requests (deadline
+ * exceeded, downstream shed) back the limit off by 10%.
+ *
+ * Based on the Gradient2 rule from Netflix concurrency-limits.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double DROP_BACKOFF = 0.9;
+
+    private final String name;
+    private final ConcurrencyLimitProperties properties;
+
+    private double estimatedLimit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, ConcurrencyLimitProperties properties) {
+        this.name = name;
+        this.properties = properties;
+        this.estimatedLimit = properties.getInitialLimit();
+    }
+
+    /**
+     * Try to admit a request
+     *
+     * @return false when the endpoint is at its limit
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) estimatedLimit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit
+     *
+     * @param rttNanos Time the request spent in the handler
+     * @param dropped True when the request was abandoned or shed downstream
+     */
+    public synchronized void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight;
+        inFlight--;
+
+        if (dropped) {
+            estimatedLimit = Math.max(properties.getMinLimit(), estimatedLimit * DROP_BACKOFF);
+            return;
+        }
+
+        shortRttNanos = ewma(shortRttNanos, rttNanos, SHORT_WINDOW);
+        longRttNanos = ewma(longRttNanos, rttNanos, LONG_WINDOW);
+
+        // Let the baseline follow recovery so a past spike does not pin the limit high
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Latency under light load says nothing about the limit
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getTolerance() * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+        estimatedLimit = Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), newLimit));
+    }
+
+    private static double ewma(double current, double sample, double window) {
+        if (current == 0) {
+            return sample;
+        }
+        double factor = 2.0 / (window + 1);
+        return current * (1 - factor) + sample * factor;
+    }
+
+    /**
+     * Suggested Retry-After for shed requests: about one short-term latency
+     */
+    public synchronized long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(shortRttNanos / 1_000_000_000d));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
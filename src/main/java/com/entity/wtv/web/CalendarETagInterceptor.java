@@ -0,0 +1,109 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.service.CalendarModelProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Conditional GET for calendar endpoints, keyed on the ENTMONTH version
+ *
+ * The ETag is "bootId-version": version is CalendarModelProvider's counter
+ * (bumped by every CtrsCalendarService write), bootId keeps tags from an
+ * earlier process or another node from ever matching. A matching
+ * If-None-Match is answered 304 before the controller runs - no query, no
+ * serialization. Otherwise the tag is written with the body, and only on a
+ * 2xx - an error response must not be cached under the calendar's tag.
+ *
+ * Registered in WebMvcConfig for the reporting-month, week and CTRS calendar
+ * paths.
+ */
+@RestControllerAdvice
+@Slf4j
+public class CalendarETagInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String ATTRIBUTE = CalendarETagInterceptor.class.getName() + ".etag";
+
+    private final CalendarModelProvider calendarModelProvider;
+    private final String bootId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    public CalendarETagInterceptor(CalendarModelProvider calendarModelProvider) {
+        this.calendarModelProvider = calendarModelProvider;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        String etag = "\"" + bootId + "-" + calendarModelProvider.getVersion() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            log.debug("Calendar not modified for {} ({})", request.getRequestURI(), etag);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        request.setAttribute(ATTRIBUTE, etag);
+        return true;
+    }
+
+    // =========================================================================
+    // ResponseBodyAdvice - tag successful bodies only
+    // =========================================================================
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && servletRequest.getServletRequest().getAttribute(ATTRIBUTE) instanceof String etag) {
+            int status = servletResponse.getServletResponse().getStatus();
+            if (status >= 200 && status < 300) {
+                response.getHeaders().setETag(etag);
+            }
+        }
+        return body;
+    }
+
+    /**
+     * If-None-Match uses weak comparison: "*" or any listed tag, W/ prefix ignored
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
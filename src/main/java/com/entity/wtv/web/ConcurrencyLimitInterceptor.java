@@ -0,0 +1,123 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.config.ConcurrencyLimitProperties;
+import com.entity.wtv.exception.RequestCancelledException;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import com.entity.wtv.service.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admits @ConcurrencyLimited endpoints through their adaptive limiter
+ *
+ * Over-limit requests fail fast with 503 + Retry-After instead of queueing
+ * in Tomcat. Admitted requests get a RequestDeadline of
+ * wtv.limiter.client-timeout; database work still pending when it passes is
+ * cancelled rather than finished for a client that has already given up.
+ * (A blocking request cannot see its client disconnect - the container only
+ * notices on I/O - so the deadline is the bound there; streamed responses
+ * also stop on disconnect, see StreamingResponses.)
+ *
+ * Streaming (async) responses keep their permit until the async dispatch
+ * completes, so the latency sample covers the whole stream.
+ *
+ * Metrics (tag endpoint=limiter name):
+ * wtv.limiter.limit, wtv.limiter.inflight, wtv.limiter.rejected
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Permit was taken on the initial dispatch and is released in afterCompletion
+            return true;
+        }
+        ConcurrencyLimited annotation = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (annotation == null) {
+            return true;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(annotation.value(), this::createLimiter);
+        if (!limiter.tryAcquire()) {
+            rejectedCounters.get(limiter.getName()).increment();
+            log.warn("Shedding {} request - concurrency limit {} reached", limiter.getName(), limiter.getLimit());
+            throw new ServiceUnavailableException(
+                    "Too many concurrent " + limiter.getName() + " requests", limiter.retryAfterSeconds());
+        }
+
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        RequestDeadline.set(Instant.now().plus(properties.getClientTimeout()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The container thread is handed back while the stream is written elsewhere
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter == null) {
+            return;
+        }
+        RequestDeadline.clear();
+        long elapsedNanos = System.nanoTime() - (Long) request.getAttribute(START_ATTRIBUTE);
+        // Handled exceptions arrive here as their status (ex is null): shed and
+        // cancelled requests both map to 503 and are left out of the gradient
+        boolean dropped = ex instanceof ServiceUnavailableException || ex instanceof RequestCancelledException
+                || response.getStatus() == HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+        limiter.release(elapsedNanos, dropped);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String name) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, properties);
+        Gauge.builder("wtv.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        Gauge.builder("wtv.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently admitted")
+                .tag("endpoint", name)
+                .register(meterRegistry);
+        rejectedCounters.put(name, Counter.builder("wtv.limiter.rejected")
+                .description("Requests shed by the concurrency limiter")
+                .tag("endpoint", name)
+                .register(meterRegistry));
+        return limiter;
+    }
+}
@@ -0,0 +1,18 @@
+package com.entity.wtv.web;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a controller endpoint as heavy: requests are admitted through an
+ * adaptive concurrency limit and shed with 503 + Retry-After when it is reached
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimited {
+
+    /**
+     * Limiter name - endpoints sharing a name share one limit
+     */
+    String value();
+}
@@ -0,0 +1,46 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.dto.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the ?fields= selection made by a handler to the Jackson write
+ *
+ * Handlers call select() on the request thread; the selected properties are
+ * then the only ones written for DTOs carrying the FieldSelection filter, in
+ * any Jackson encoding (JSON, CBOR, Smile).
+ */
+@RestControllerAdvice
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    private static final String ATTRIBUTE = FieldSelectionAdvice.class.getName() + ".selection";
+
+    /**
+     * Record the selection for the current request's response body
+     */
+    public static void select(FieldSelection selection) {
+        if (!selection.isAll()) {
+            RequestContextHolder.currentRequestAttributes()
+                    .setAttribute(ATTRIBUTE, selection, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(ATTRIBUTE) instanceof FieldSelection selection) {
+            bodyContainer.setFilters(selection.toFilterProvider());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.change.ChangeCapturePoller;
+import com.entity.wtv.config.ResponseCacheProperties;
+import com.entity.wtv.service.CalendarModelProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized, pre-compressed response cache for /reporting-months and /summaries
+ * (row-oriented and columnar)
+ *
+ * A miss runs the normal MVC chain and keeps the JSON bytes plus a gzip
+ * variant. A hit writes those bytes straight to the response - no controller,
+ * no Jackson, no compression - choosing the variant from Accept-Encoding and
+ * answering a matching If-None-Match with 304. Every cached response carries
+ * Age (seconds since the bytes were produced), so a client can tell how old
+ * the summaries it got are.
+ *
+ * Keys are path + query + Accept + data version. Reporting months use the
+ * calendar version (their ETag comes from CalendarETagInterceptor); summaries
+ * use the change-capture data version and get a content-hash ETag. Summaries
+ * still expire after wtv.response-cache.summaries-ttl, which covers changes the
+ * feed cannot see (deleted entries); with change capture off the data version
+ * never moves and the shorter summaries-ttl-without-capture applies. A
+ * summaries request never joins a computation started for an older data
+ * version (see DegradedModeService), so a body stored under a version holds
+ * rows read at or after it. JSON, CBOR and Smile bodies are separate entries
+ * (keyed by Accept) and responses carry Vary: Accept, Accept-Encoding. Stale (degraded mode) and non-200 responses are
+ * never cached; NDJSON streaming requests bypass the cache entirely.
+ *
+ * Metrics: wtv.response.cache{result=hit|miss}
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String REPORTING_MONTHS_PATH = "/api/wtv/reporting-months";
+    private static final String SUMMARIES_PATH = "/api/wtv/summaries";
+    private static final String COLUMNAR_SUMMARIES_PATH = "/api/wtv/summaries/columnar";
+
+    private final ResponseCacheProperties properties;
+    private final CalendarModelProvider calendarModelProvider;
+    private final ChangeCapturePoller changeCapturePoller;
+    private final Map<String, CachedResponse> cache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties,
+                               CalendarModelProvider calendarModelProvider,
+                               ChangeCapturePoller changeCapturePoller,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.calendarModelProvider = calendarModelProvider;
+        this.changeCapturePoller = changeCapturePoller;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        });
+        this.hitCounter = Counter.builder("wtv.response.cache")
+                .description("Cached response lookups by result")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("wtv.response.cache")
+                .description("Cached response lookups by result")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || !"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)) {
+            // Streamed summaries are written asynchronously, row by row
+            return true;
+        }
+        String path = pathOf(request);
+        return !REPORTING_MONTHS_PATH.equals(path) && !isSummaries(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String path = pathOf(request);
+        String key = cacheKey(request, path);
+        CachedResponse cached = cache.get(key);
+
+        if (cached != null && !cached.isExpired()) {
+            hitCounter.increment();
+            write(request, response, cached);
+            return;
+        }
+
+        missCounter.increment();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK
+                || wrapper.getHeader(HttpHeaders.WARNING) != null
+                || wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        if (etag == null) {
+            etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+        }
+        Instant expiresAt = isSummaries(path) ? Instant.now().plus(summariesTtl()) : null;
+        CachedResponse entry = new CachedResponse(wrapper.getContentType(), etag,
+                wrapper.getHeader(HttpHeaders.CACHE_CONTROL), body,
+                body.length >= properties.getGzipMinSize() ? gzip(body) : null, Instant.now(), expiresAt);
+        cache.put(key, entry);
+
+        // Send the freshly cached bytes the same way a hit would, so both paths agree
+        wrapper.resetBuffer();
+        write(request, response, entry);
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached)
+            throws IOException {
+        response.setHeader(HttpHeaders.ETAG, cached.etag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.AGE, Long.toString(cached.ageSeconds()));
+        if (cached.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = cached.body();
+        if (cached.gzipBody() != null && acceptsGzip(request)) {
+            body = cached.gzipBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private Duration summariesTtl() {
+        return changeCapturePoller.isEnabled()
+                ? properties.getSummariesTtl() : properties.getSummariesTtlWithoutCapture();
+    }
+
+    private String cacheKey(HttpServletRequest request, String path) {
+        String version = REPORTING_MONTHS_PATH.equals(path)
+                ? "calendar-" + calendarModelProvider.getVersion()
+                : "data-" + changeCapturePoller.getDataVersion();
+        return path + "?" + request.getQueryString() + "|" + request.getHeader(HttpHeaders.ACCEPT) + "|" + version;
+    }
+
+    private static boolean isSummaries(String path) {
+        return SUMMARIES_PATH.equals(path) || COLUMNAR_SUMMARIES_PATH.equals(path);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * True when Accept-Encoding gives gzip (or, failing that, "*") a non-zero q-value
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQ = -1;
+        double anyQ = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQ = Math.max(gzipQ, qValue(parts));
+            } else if (name.equals("*")) {
+                anyQ = Math.max(anyQ, qValue(parts));
+            }
+        }
+        return gzipQ >= 0 ? gzipQ > 0 : anyQ > 0;
+    }
+
+    private static double qValue(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // A malformed weight does not count as acceptance
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private record CachedResponse(String contentType, String etag, String cacheControl,
+                                  byte[] body, byte[] gzipBody, Instant createdAt, Instant expiresAt) {
+
+        long ageSeconds() {
+            return Math.max(0, Duration.between(createdAt, Instant.now()).getSeconds());
+        }
+
+        boolean isExpired() {
+            return expiresAt != null && Instant.now().isAfter(expiresAt);
+        }
+    }
+}
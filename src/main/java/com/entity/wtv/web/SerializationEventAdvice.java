@@ -0,0 +1,56 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.jfr.SerializationEvent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.EventType;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Times response body serialization as a JFR SerializationEvent
+ *
+ * The event begins when the message converter is about to write the handler's
+ * return value and ends in afterCompletion, so it covers encoding and writing
+ * the body but not the handler itself. Nothing is allocated unless a recording
+ * has the event enabled. Streaming bodies (NDJSON, SSE) are not covered.
+ */
+@RestControllerAdvice
+public class SerializationEventAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String ATTRIBUTE = SerializationEventAdvice.class.getName() + ".event";
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(SerializationEvent.class);
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (EVENT_TYPE.isEnabled() && request instanceof ServletServerHttpRequest servletRequest) {
+            SerializationEvent event = new SerializationEvent();
+            event.begin();
+            servletRequest.getServletRequest().setAttribute(ATTRIBUTE, event);
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATTRIBUTE) instanceof SerializationEvent event) {
+            event.complete(request.getRequestURI(), response.getContentType(), response.getStatus());
+        }
+    }
+}
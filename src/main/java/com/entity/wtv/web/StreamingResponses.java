@@ -0,0 +1,127 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.config.ConcurrencyLimitProperties;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import com.entity.wtv.service.RequestCancellation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streamed response bodies whose database work stops when the client goes away
+ *
+ * The body is written from a wtv-stream thread through a ResponseBodyEmitter
+ * rather than returned as a StreamingResponseBody: Spring interrupts a
+ * StreamingResponseBody thread on async timeout or error, and an interrupt
+ * inside the JDBC driver mid-transaction can leave the pooled connection
+ * unusable.
+ *
+ * The container only notices a closed connection when it reads or writes,
+ * so disconnects surface as a failed write of the next chunk, or as the
+ * async lifecycle's onError / onTimeout (spring.mvc.async.request-timeout).
+ * Each cancels the stream's RequestCancellation: the statement in flight is
+ * cancelled and the scan stops at the next row.
+ */
+@Component
+@Slf4j
+public class StreamingResponses {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ThreadPoolExecutor executor;
+
+    public StreamingResponses(ConcurrencyLimitProperties properties) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, properties.getStreamThreads(), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "wtv-stream-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Body written to a buffered stream; flush() sends what has been written so far
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Start writing a body on a stream thread
+     *
+     * @param name Used in log messages
+     */
+    public ResponseBodyEmitter stream(String name, BodyWriter writer) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        RequestCancellation cancellation = new RequestCancellation();
+        emitter.onTimeout(cancellation::cancel);
+        emitter.onError(error -> cancellation.cancel());
+
+        try {
+            executor.execute(() -> write(name, emitter, cancellation, writer));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Too many streamed responses in progress", 1);
+        }
+        return emitter;
+    }
+
+    private void write(String name, ResponseBodyEmitter emitter, RequestCancellation cancellation,
+                       BodyWriter writer) {
+        RequestCancellation.bind(cancellation);
+        try (OutputStream out = new BufferedOutputStream(new EmitterOutputStream(emitter), BUFFER_SIZE)) {
+            writer.write(out);
+            out.flush();
+            emitter.complete();
+        } catch (Throwable t) {
+            cancellation.cancel();
+            log.debug("Stream {} ended early: {}", name, t.toString());
+            emitter.completeWithError(t);
+        } finally {
+            RequestCancellation.clear();
+        }
+    }
+
+    /**
+     * Sends every write as one chunk; the buffer in front decides the chunk size
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            emitter.send(new byte[]{(byte) b});
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                emitter.send(Arrays.copyOfRange(b, off, off + len));
+            }
+        }
+    }
+}
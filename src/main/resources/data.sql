@@ -195,3 +195,7 @@ INSERT INTO TIMENON (ROID, RPTDT, TIMECODE, HOURS) VALUES (21012914, DATE '2024-
 -- Special codes 750 and 760 testing
 INSERT INTO TIMENON (ROID, RPTDT, TIMECODE, HOURS) VALUES (21012901, DATE '2024-11-28', '750', 8.00);
 INSERT INTO TIMENON (ROID, RPTDT, TIMECODE, HOURS) VALUES (21012905, DATE '2024-11-29', '760', 8.00);
+
+-- Entry timestamps: each day's time keyed at 5 PM that day (drives /summaries/changes)
+UPDATE TIMENON SET ENTRYDT = DATEADD('HOUR', 17, CAST(RPTDT AS TIMESTAMP));
+UPDATE TIMETIN SET ENTRYDT = DATEADD('HOUR', 17, CAST(RPTDT AS TIMESTAMP));
@@ -10,6 +10,9 @@ DROP TABLE IF EXISTS ENT;
 DROP TABLE IF EXISTS ENTEMP;
 DROP TABLE IF EXISTS ENTMONTH;
 DROP TABLE IF EXISTS ENTCODE;
+DROP TABLE IF EXISTS WTV_CACHE_INVALIDATION;
+DROP SEQUENCE IF EXISTS WTV_CACHE_INVALIDATION_SEQ;
+DROP TABLE IF EXISTS WTV_JOB_LOCK;
 
 -- =============================================================================
 -- ENTEMP - Employee/Assignment Master (39 columns - all columns for entity)
@@ -124,13 +127,15 @@ CREATE TABLE TIMENON (
     RPTDT DATE,
     TIMECODE CHAR(5),
     HOURS NUMBER(4,2),
-    ENTRYDT DATE,
+    ENTRYDT TIMESTAMP,
     QUARTER CHAR(2),
     PRIMARY KEY (ROID, RPTDT, TIMECODE)
 );
 
 CREATE INDEX TIMENON_RPTDT_IX ON TIMENON(RPTDT);
 CREATE INDEX TIMENON_ROID_IX ON TIMENON(ROID);
+-- Delta sync (/summaries/changes): range scan on entry time, ROID read from the index
+CREATE INDEX TIMENON_ENTRYDT_IX ON TIMENON(ENTRYDT, RPTDT, ROID);
 
 -- =============================================================================
 -- TIMETIN - Case/TIN Time Entries
@@ -140,10 +145,45 @@ CREATE TABLE TIMETIN (
     TIMESID NUMBER(8),
     RPTDT DATE,
     HOURS NUMBER(4,2),
-    ENTRYDT DATE,
+    ENTRYDT TIMESTAMP,
     PRIMARY KEY (ROID, TIMESID, RPTDT)
 );
 
 CREATE INDEX TIMETIN_RPTDT_IX ON TIMETIN(RPTDT);
 CREATE INDEX TIMETIN_ROID_IX ON TIMETIN(ROID);
 CREATE INDEX TIMETIN_TIMESID_IX ON TIMETIN(TIMESID);
+-- Delta sync (/summaries/changes): range scan on entry time, ROID read from the index
+CREATE INDEX TIMETIN_ENTRYDT_IX ON TIMETIN(ENTRYDT, RPTDT, ROID);
+
+-- =============================================================================
+-- WTV_CACHE_INVALIDATION - Cross-node cache invalidation log
+-- Written in the same transaction as the change; every node tails it by CREATED
+-- =============================================================================
+CREATE SEQUENCE WTV_CACHE_INVALIDATION_SEQ;
+
+CREATE TABLE WTV_CACHE_INVALIDATION (
+    SEQ NUMBER(19) PRIMARY KEY,
+    REGION VARCHAR2(30) NOT NULL,
+    CACHE_KEY VARCHAR2(100),
+    NODE_ID VARCHAR2(100),
+    CREATED TIMESTAMP NOT NULL
+);
+
+CREATE INDEX WTV_CACHE_INV_CREATED_IX ON WTV_CACHE_INVALIDATION(CREATED, SEQ);
+
+-- =============================================================================
+-- WTV_JOB_LOCK - Lease per scheduled job partition (one node runs each)
+-- =============================================================================
+CREATE TABLE WTV_JOB_LOCK (
+    JOB_NAME VARCHAR2(50) NOT NULL,
+    PARTITION_NO NUMBER(4) NOT NULL,
+    OWNER VARCHAR2(100),
+    LEASE_UNTIL TIMESTAMP,
+    NEXT_RUN TIMESTAMP,
+    LAST_OWNER VARCHAR2(100),
+    LAST_START TIMESTAMP,
+    LAST_END TIMESTAMP,
+    LAST_STATUS VARCHAR2(20),
+    LAST_ERROR VARCHAR2(400),
+    PRIMARY KEY (JOB_NAME, PARTITION_NO)
+);
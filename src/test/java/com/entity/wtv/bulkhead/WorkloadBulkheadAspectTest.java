@@ -0,0 +1,114 @@
+package com.entity.wtv.bulkhead;
+
+import com.entity.wtv.config.BulkheadProperties;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Permits, queueing and rejection in the workload bulkheads
+ */
+class WorkloadBulkheadAspectTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void rejectsWithRetryAfterWhenNoPermitAndNoQueue() throws Exception {
+        WorkloadBulkheadAspect bulkheads = exportBulkhead(new BulkheadProperties.Limits(1, 0, Duration.ZERO));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(bulkheads, release);
+
+        assertThatThrownBy(() -> bulkheads.call(WorkloadClass.EXPORT, "second", () -> "unreached"))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+        assertThat(meterRegistry.get("wtv.bulkhead.rejected").tag("workload", "export").counter().count())
+                .isEqualTo(1);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(bulkheads.call(WorkloadClass.EXPORT, "after", () -> "ran")).isEqualTo("ran");
+    }
+
+    @Test
+    void queuedCallRunsWhenPermitIsReleasedWithinMaxWait() throws Exception {
+        WorkloadBulkheadAspect bulkheads = exportBulkhead(new BulkheadProperties.Limits(1, 1, Duration.ofSeconds(5)));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(bulkheads, release);
+
+        Future<String> queued = callers.submit(() -> bulkheads.call(WorkloadClass.EXPORT, "queued", () -> "ran"));
+        Thread.sleep(50);
+        assertThat(queued).isNotDone();
+        release.countDown();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("ran");
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void nestedCallPassesThroughOnHeldPermit() throws InterruptedException {
+        WorkloadBulkheadAspect bulkheads = exportBulkhead(new BulkheadProperties.Limits(1, 0, Duration.ZERO));
+
+        String result = bulkheads.call(WorkloadClass.EXPORT, "outer", () -> {
+            try {
+                return bulkheads.call(WorkloadClass.EXPORT, "inner", () -> "nested");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(result).isEqualTo("nested");
+    }
+
+    @Test
+    void classesDoNotSharePermits() throws Exception {
+        WorkloadBulkheadAspect bulkheads = exportBulkhead(new BulkheadProperties.Limits(1, 0, Duration.ZERO));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = hold(bulkheads, release);
+
+        // A full export bulkhead leaves the interactive one untouched
+        assertThat(bulkheads.hasHeadroom(WorkloadClass.INTERACTIVE, 1)).isTrue();
+        assertThat(bulkheads.call(WorkloadClass.INTERACTIVE, "screen", () -> "ran")).isEqualTo("ran");
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    private WorkloadBulkheadAspect exportBulkhead(BulkheadProperties.Limits limits) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setExport(limits);
+        return new WorkloadBulkheadAspect(properties, meterRegistry);
+    }
+
+    private Future<?> hold(WorkloadBulkheadAspect bulkheads, CountDownLatch release) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> bulkheads.call(WorkloadClass.EXPORT, "holder", () -> {
+            held.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+}
@@ -0,0 +1,125 @@
+package com.entity.wtv.coherence;
+
+import com.entity.wtv.WtvApplication;
+import com.entity.wtv.dto.UpdateFiscalMonthRequest;
+import com.entity.wtv.service.CalendarModelProvider;
+import com.entity.wtv.service.CtrsCalendarService;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application contexts on one H2 TCP database, standing in for two nodes:
+ * a calendar write on one must reach the other's calendar model through
+ * WTV_CACHE_INVALIDATION.
+ */
+class CacheInvalidationLogTest {
+
+    private static final String MONTH = "OCT2024";
+    private static final Duration WAIT = Duration.ofSeconds(15);
+
+    private static Server database;
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + database.getPort()
+                + "/mem:wtvcoherence;DB_CLOSE_DELAY=-1;MODE=Oracle";
+        // Node A creates and seeds the schema; node B only connects to it
+        nodeA = startNode(url, "node-a", "always");
+        nodeB = startNode(url, "node-b", "never");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (database != null) {
+            database.stop();
+        }
+    }
+
+    @Test
+    void calendarWriteOnOneNodeInvalidatesTheOther() {
+        CtrsCalendarService calendarA = nodeA.getBean(CtrsCalendarService.class);
+        CtrsCalendarService calendarB = nodeB.getBean(CtrsCalendarService.class);
+        CalendarModelProvider modelB = nodeB.getBean(CalendarModelProvider.class);
+
+        int workdays = calendarB.getFiscalMonth(MONTH).getWorkdays();
+        long versionB = modelB.getVersion();
+
+        calendarA.updateFiscalMonth(MONTH, UpdateFiscalMonthRequest.builder().workdays(workdays - 1).build());
+
+        assertThat(awaitTrue(() -> modelB.getVersion() > versionB))
+                .as("node B received the invalidation").isTrue();
+        assertThat(calendarB.getFiscalMonth(MONTH).getWorkdays()).isEqualTo(workdays - 1);
+    }
+
+    @Test
+    void ownWritesAreNotReappliedFromTheLog() throws InterruptedException {
+        CtrsCalendarService calendarA = nodeA.getBean(CtrsCalendarService.class);
+        CalendarModelProvider modelA = nodeA.getBean(CalendarModelProvider.class);
+        CacheInvalidationLog logA = nodeA.getBean(CacheInvalidationLog.class);
+
+        int workdays = calendarA.getFiscalMonth(MONTH).getWorkdays();
+        calendarA.updateFiscalMonth(MONTH, UpdateFiscalMonthRequest.builder().workdays(workdays + 1).build());
+        long versionAfterWrite = modelA.getVersion();
+
+        // Several poll intervals - node A's tail sees its own row and skips it
+        Thread.sleep(1000);
+        assertThat(modelA.getVersion()).isEqualTo(versionAfterWrite);
+        assertThat(logA.getNodeId()).isEqualTo("node-a");
+    }
+
+    private static ConfigurableApplicationContext startNode(String url, String nodeId, String sqlInitMode) {
+        // Command-line arguments, so they win over application.yml
+        return new SpringApplicationBuilder(WtvApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local")
+                .run(
+                        "--spring.datasource.url=" + url,
+                        "--spring.sql.init.mode=" + sqlInitMode,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                        "--wtv.cache-invalidation.enabled=true",
+                        "--wtv.cache-invalidation.poll-interval=100ms",
+                        "--wtv.cache-invalidation.node-id=" + nodeId,
+                        "--wtv.change-capture.enabled=false",
+                        "--wtv.jobs.enabled=false",
+                        "--wtv.warmup.enabled=false",
+                        "--wtv.prefetch.enabled=false");
+    }
+
+    private static boolean awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return condition.getAsBoolean();
+    }
+}
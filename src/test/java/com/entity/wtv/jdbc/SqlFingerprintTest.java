@@ -0,0 +1,32 @@
+package com.entity.wtv.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL_IDs against ones Oracle reports in V$SQL for the same text
+ */
+class SqlFingerprintTest {
+
+    @Test
+    void sqlIdMatchesOracleForPlainText() {
+        assertThat(SqlFingerprint.oracleSqlId("select sysdate from dual")).isEqualTo("7h35uxf5uhmm1");
+        assertThat(SqlFingerprint.oracleSqlId("select * from dual")).isEqualTo("a5ks9fhw2v9s1");
+    }
+
+    @Test
+    void parameterMarkersBecomePositionalBinds() {
+        assertThat(SqlFingerprint.oracleBindMarkers("select x from t where a = ? and b in (?, ?)"))
+                .isEqualTo("select x from t where a = :1 and b in (:2, :3)");
+        assertThat(SqlFingerprint.oracleSqlId("select x from t where a = ?"))
+                .isEqualTo(SqlFingerprint.oracleSqlId("select x from t where a = :1"));
+    }
+
+    @Test
+    void markersInLiteralsIdentifiersAndCommentsAreKept() {
+        assertThat(SqlFingerprint.oracleBindMarkers(
+                "select '?', 'it''s ?', \"A?\" /* ? */ from t -- ?\nwhere a = ?"))
+                .isEqualTo("select '?', 'it''s ?', \"A?\" /* ? */ from t -- ?\nwhere a = :1");
+    }
+}
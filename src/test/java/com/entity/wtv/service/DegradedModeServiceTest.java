@@ -0,0 +1,286 @@
+package com.entity.wtv.service;
+
+import com.entity.wtv.bulkhead.WorkloadBulkheadAspect;
+import com.entity.wtv.bulkhead.WorkloadClass;
+import com.entity.wtv.config.BulkheadProperties;
+import com.entity.wtv.config.DegradedModeProperties;
+import com.entity.wtv.exception.RequestCancelledException;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Single-flight, cancellation and circuit breaking in DegradedModeService
+ */
+class DegradedModeServiceTest {
+
+    private static final String KEY = "summaries:2024-10-27:2024-11-02::all";
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private DegradedModeProperties properties;
+    private MeterRegistry meterRegistry;
+    private DegradedModeService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DegradedModeProperties();
+        properties.setLatencyThreshold(Duration.ofMillis(50));
+        properties.setMaxWait(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new DegradedModeService(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        service.shutdown();
+    }
+
+    // =========================================================================
+    // Single-flight
+    // =========================================================================
+
+    @Test
+    void identicalConcurrentCallsShareOneComputationWithOwnCopies() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        properties.setLatencyThreshold(Duration.ofSeconds(5));
+
+        Future<DegradedModeService.Served<List<String>>> first = callers.submit(() -> service.execute(KEY, 0, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return List.of("row");
+        }, ArrayList::new));
+        assertThat(awaitTrue(() -> gauge("wtv.degraded.inflight") == 1)).isTrue();
+        Future<DegradedModeService.Served<List<String>>> second = callers.submit(() -> service.execute(KEY, 0, () -> {
+            loads.incrementAndGet();
+            return List.of("other");
+        }, ArrayList::new));
+        assertThat(awaitTrue(() -> calls("joined") == 1)).isTrue();
+        release.countDown();
+
+        List<String> firstRows = first.get(5, TimeUnit.SECONDS).value();
+        List<String> secondRows = second.get(5, TimeUnit.SECONDS).value();
+        assertThat(firstRows).containsExactly("row");
+        assertThat(secondRows).containsExactly("row").isNotSameAs(firstRows);
+        assertThat(loads).hasValue(1);
+        assertThat(calls("computed")).isEqualTo(1);
+    }
+
+    @Test
+    void abandonedCallIsNotJoinedWhileItWindsDown() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean sawCancel = new AtomicBoolean();
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // Nobody waits past max-wait; the worker only notices at its next checkpoint
+        assertThatThrownBy(() -> service.execute(KEY, () -> {
+            try {
+                await(release);
+                sawCancel.set(RequestCancellation.current().isCancelled());
+                RequestCancellation.checkNotCancelled();
+                return "abandoned";
+            } finally {
+                finished.countDown();
+            }
+        })).isInstanceOf(ServiceUnavailableException.class);
+
+        DegradedModeService.Served<String> retried = service.execute(KEY, () -> "fresh");
+        assertThat(retried.value()).isEqualTo("fresh");
+        assertThat(retried.stale()).isFalse();
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sawCancel).isTrue();
+        assertThat(calls("joined")).isZero();
+        assertThat(service.getStatus().get("circuitState")).isEqualTo("CLOSED");
+    }
+
+    @Test
+    void callStartedForOlderDataIsNotJoined() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<DegradedModeService.Served<String>> before = callers.submit(() ->
+                service.execute(KEY, 1, () -> {
+                    await(release);
+                    return "v1";
+                }, s -> s));
+        assertThat(awaitTrue(() -> gauge("wtv.degraded.inflight") == 1)).isTrue();
+
+        DegradedModeService.Served<String> after = service.execute(KEY, 2, () -> "v2", s -> s);
+        release.countDown();
+
+        assertThat(after.value()).isEqualTo("v2");
+        assertThat(before.get(5, TimeUnit.SECONDS).value()).isEqualTo("v1");
+        assertThat(calls("computed")).isEqualTo(2);
+    }
+
+    @Test
+    void cancelledWorkIsNeutralForTheCircuit() {
+        properties.setFailureThreshold(1);
+        assertThatThrownBy(() -> service.execute(KEY, () -> {
+            throw new RequestCancelledException("gone");
+        })).isInstanceOf(RequestCancelledException.class);
+        assertThat(service.getStatus().get("circuitState")).isEqualTo("CLOSED");
+    }
+
+    // =========================================================================
+    // Circuit breaker
+    // =========================================================================
+
+    @Test
+    void circuitOpensThenProbesThenCloses() throws InterruptedException {
+        DegradedModeService.CircuitBreaker breaker = new DegradedModeService.CircuitBreaker();
+        breaker.recordFailure(2);
+        assertThat(breaker.getState()).isEqualTo(DegradedModeService.CircuitState.CLOSED);
+        breaker.recordFailure(2);
+        assertThat(breaker.getState()).isEqualTo(DegradedModeService.CircuitState.OPEN);
+        assertThat(breaker.allowRequest(Duration.ofMinutes(1))).isFalse();
+
+        Thread.sleep(5);
+        assertThat(breaker.allowRequest(Duration.ZERO)).isTrue();
+        assertThat(breaker.getState()).isEqualTo(DegradedModeService.CircuitState.HALF_OPEN);
+        assertThat(breaker.allowRequest(Duration.ZERO)).as("single probe").isFalse();
+
+        breaker.recordSuccess();
+        assertThat(breaker.getState()).isEqualTo(DegradedModeService.CircuitState.CLOSED);
+        assertThat(breaker.getConsecutiveFailures()).isZero();
+        assertThat(breaker.allowRequest(Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws InterruptedException {
+        DegradedModeService.CircuitBreaker breaker = new DegradedModeService.CircuitBreaker();
+        breaker.recordFailure(1);
+        Thread.sleep(5);
+        assertThat(breaker.allowRequest(Duration.ZERO)).isTrue();
+
+        breaker.recordFailure(1);
+        assertThat(breaker.getState()).isEqualTo(DegradedModeService.CircuitState.OPEN);
+        assertThat(breaker.allowRequest(Duration.ofMinutes(1))).isFalse();
+    }
+
+    @Test
+    void openCircuitWithoutStaleResultRejectsWithRetryAfter() {
+        properties.setFailureThreshold(1);
+        assertThatThrownBy(() -> service.execute(KEY, () -> {
+            throw new DataAccessResourceFailureException("down");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThatThrownBy(() -> service.execute(KEY, () -> "unreached"))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isPositive());
+    }
+
+    // =========================================================================
+    // Bulkhead rejections
+    // =========================================================================
+
+    @Test
+    void bulkheadRejectionIsNeutral() throws Exception {
+        properties.setFailureThreshold(1);
+        properties.setOpenDuration(Duration.ofMillis(50));
+        WorkloadBulkheadAspect bulkheads = exportBulkheadOfOne();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = holdExportPermit(bulkheads, release);
+
+        // Closed circuit: the rejection does not count towards opening it
+        assertThatThrownBy(() -> service.execute(KEY, () -> export(bulkheads)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(service.getStatus().get("circuitState")).isEqualTo("CLOSED");
+        assertThat(service.getStatus().get("consecutiveSlowCalls")).isEqualTo(0);
+
+        // Half-open probe: the rejection does not close it either
+        assertThatThrownBy(() -> service.execute(KEY, () -> {
+            throw new DataAccessResourceFailureException("down");
+        })).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(service.getStatus().get("circuitState")).isEqualTo("OPEN");
+        Thread.sleep(60);
+        assertThatThrownBy(() -> service.execute(KEY, () -> export(bulkheads)))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(service.getStatus().get("circuitState")).isEqualTo("OPEN");
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    // =========================================================================
+    // Helpers
+    // =========================================================================
+
+    private WorkloadBulkheadAspect exportBulkheadOfOne() {
+        BulkheadProperties bulkheadProperties = new BulkheadProperties();
+        bulkheadProperties.setExport(new BulkheadProperties.Limits(1, 0, Duration.ZERO));
+        return new WorkloadBulkheadAspect(bulkheadProperties, meterRegistry);
+    }
+
+    private Future<?> holdExportPermit(WorkloadBulkheadAspect bulkheads, CountDownLatch release)
+            throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        Future<?> holder = callers.submit(() -> bulkheads.call(WorkloadClass.EXPORT, "holder", () -> {
+            held.countDown();
+            await(release);
+            return null;
+        }));
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        return holder;
+    }
+
+    private static String export(WorkloadBulkheadAspect bulkheads) {
+        try {
+            return bulkheads.call(WorkloadClass.EXPORT, "export", () -> "unreached");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double calls(String outcome) {
+        var counter = meterRegistry.find("wtv.degraded.calls").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Test latch not released");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return condition.getAsBoolean();
+    }
+}
@@ -0,0 +1,123 @@
+package com.entity.wtv.web;
+
+import com.entity.wtv.config.ConcurrencyLimitProperties;
+import com.entity.wtv.exception.GlobalExceptionHandler;
+import com.entity.wtv.exception.RequestCancelledException;
+import com.entity.wtv.exception.ServiceUnavailableException;
+import com.entity.wtv.service.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Shedding through the adaptive limit and the 503 it maps to
+ */
+class ConcurrencyLimitInterceptorTest {
+
+    private ConcurrencyLimitProperties properties;
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitInterceptor interceptor;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(1);
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new ConcurrencyLimitInterceptor(properties, meterRegistry);
+        handler = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("limited"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void shedsOverLimitWithServiceUnavailableAndRetryAfter() {
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler)).isTrue();
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler)).isTrue();
+
+        ServiceUnavailableException shed = catchShed();
+        assertThat(meterRegistry.get("wtv.limiter.rejected").tag("endpoint", "test").counter().count()).isEqualTo(1);
+
+        ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleServiceUnavailable(shed);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void releasedPermitAdmitsTheNextRequest() {
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        interceptor.preHandle(first, firstResponse, handler);
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler);
+        catchShed();
+
+        interceptor.afterCompletion(first, firstResponse, handler, null);
+
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void resolvedServiceUnavailableCountsAsDropped() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+        // By afterCompletion the handler has turned the exception into its status
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(meterRegistry.get("wtv.limiter.limit").tag("endpoint", "test").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledWorkMapsToServiceUnavailable() {
+        ResponseEntity<Map<String, Object>> response =
+                new GlobalExceptionHandler().handleRequestCancelled(new RequestCancelledException("gone"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    @Test
+    void unlimitedHandlersAreNotCounted() throws NoSuchMethodException {
+        HandlerMethod unlimited = new HandlerMethod(new Endpoints(), Endpoints.class.getMethod("unlimited"));
+        for (int i = 0; i < 5; i++) {
+            assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), unlimited))
+                    .isTrue();
+        }
+    }
+
+    private ServiceUnavailableException catchShed() {
+        ServiceUnavailableException[] shed = new ServiceUnavailableException[1];
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler))
+                .isInstanceOfSatisfying(ServiceUnavailableException.class, e -> shed[0] = e);
+        return shed[0];
+    }
+
+    static class Endpoints {
+
+        @ConcurrencyLimited("test")
+        public void limited() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}